@@ -0,0 +1,61 @@
+package com.juliandev.bench;
+
+import com.juliandev.model.ContactDAO;
+import com.juliandev.model.StorageProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Bases de datos de prueba por tamaño. Se generan una vez en {@code target/bench-db}
+ * y se reutilizan entre ejecuciones; los benchmarks de escritura trabajan sobre una copia.
+ */
+final class BenchmarkDatabase {
+    private static final Path DIRECTORY = Paths.get(System.getProperty("bench.db.dir", "target/bench-db"));
+
+    private BenchmarkDatabase() {}
+
+    static synchronized Path prepare(int size) throws IOException {
+        Files.createDirectories(DIRECTORY);
+        Path db = DIRECTORY.resolve("contacts-" + size + ".db");
+        if (Files.exists(db)) {
+            return db;
+        }
+        Path building = DIRECTORY.resolve("contacts-" + size + ".building.db");
+        deleteDatabase(building);
+        try (ContactDAO dao = open(building, "fast")) {
+            dao.importContacts(ContactGenerator.stream(0, size), 5000);
+        }
+        Files.move(building, db, StandardCopyOption.ATOMIC_MOVE);
+        return db;
+    }
+
+    static Path copy(int size) throws IOException {
+        Path source = prepare(size);
+        Path copy = Files.createTempFile(DIRECTORY, "contacts-" + size + "-", ".db");
+        Files.copy(source, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    static Path empty() throws IOException {
+        Files.createDirectories(DIRECTORY);
+        Path db = Files.createTempFile(DIRECTORY, "contacts-empty-", ".db");
+        Files.delete(db);
+        return db;
+    }
+
+    static ContactDAO open(Path db, String profileName) {
+        StorageProfile profile = StorageProfile.named(profileName);
+        profile.setDbPath(db.toString());
+        return new ContactDAO(profile);
+    }
+
+    static void deleteDatabase(Path db) throws IOException {
+        Files.deleteIfExists(db);
+        Files.deleteIfExists(Paths.get(db + "-wal"));
+        Files.deleteIfExists(Paths.get(db + "-shm"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.juliandev.bench;
+
+import com.juliandev.model.Contact;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Genera contactos sintéticos y deterministas: el contacto {@code i} es siempre el mismo,
+ * con correo único. Uno de cada 50 nombres lleva coma y comillas para ejercitar el escapado CSV.
+ */
+public final class ContactGenerator {
+    static final String[] FIRST_NAMES = {
+            "James", "María", "José", "Juan", "Sophie", "Pierre", "Lucía", "Carlos", "Emma", "Olivier",
+            "Ana", "John", "Laura", "Pablo", "Chloé", "David", "Sofía", "Miguel", "Camille", "Thomas"
+    };
+    static final String[] LAST_NAMES = {
+            "Garcia", "Martin", "Smith", "Dubois", "Lopez", "Bernard", "Johnson", "Fernandez", "Moreau", "Brown",
+            "Rodriguez", "Lefebvre", "Williams", "Sanchez", "Laurent", "Jones", "Perez", "Simon", "Miller", "Gomez"
+    };
+    static final String[] TYPES = {"Work", "Family", "Personal"};
+
+    private ContactGenerator() {}
+
+    public static Contact contact(int i) {
+        long h = mix(i);
+        String first = FIRST_NAMES[(int) ((h >>> 8) % FIRST_NAMES.length)];
+        String last = LAST_NAMES[(int) ((h >>> 16) % LAST_NAMES.length)];
+        String name = i % 50 == 0 ? last + ", \"" + first + "\"" : first + " " + last;
+        String email = ascii(first) + "." + ascii(last) + i + "@example.com";
+        String phone = String.format("+34 6%02d %03d %03d", (h >>> 24) % 100, (h >>> 32) % 1000, (h >>> 42) % 1000);
+        return new Contact(0, name, email, phone, TYPES[(int) ((h >>> 52) % TYPES.length)], (h & 7) == 0);
+    }
+
+    public static List<Contact> contacts(int from, int count) {
+        List<Contact> contacts = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            contacts.add(contact(i));
+        }
+        return contacts;
+    }
+
+    /**
+     * Secuencia perezosa de {@code count} contactos, para importaciones sin materializar la lista.
+     */
+    public static Iterable<Contact> stream(int from, int count) {
+        return () -> new Iterator<>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < from + count;
+            }
+
+            @Override
+            public Contact next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return contact(next++);
+            }
+        };
+    }
+
+    /**
+     * Correo de un contacto ya generado; útil para consultas de alta selectividad.
+     */
+    public static String email(int i) {
+        return contact(i).getEmail();
+    }
+
+    private static String ascii(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return (x ^ (x >>> 31)) & Long.MAX_VALUE;
+    }
+}
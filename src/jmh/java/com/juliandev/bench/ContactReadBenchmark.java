@@ -0,0 +1,86 @@
+package com.juliandev.bench;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactDAO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas de lectura de {@link ContactDAO} según el tamaño de la agenda.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class ContactReadBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * high: un solo contacto (correo exacto); medium: un apellido (~5 %); low: todos los contactos.
+     */
+    @Param({"high", "medium", "low"})
+    public String selectivity;
+
+    private ContactDAO dao;
+    private String query;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dao = BenchmarkDatabase.open(BenchmarkDatabase.prepare(size), "balanced");
+        query = switch (selectivity) {
+            case "high" -> ContactGenerator.email(size / 2);
+            case "medium" -> ContactGenerator.LAST_NAMES[3];
+            default -> "example.com";
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dao.close();
+    }
+
+    @Benchmark
+    public List<Contact> searchContacts() {
+        return dao.searchContacts(query);
+    }
+
+    @Benchmark
+    public boolean emailExists() {
+        probe = (probe + 7919) % size;
+        return dao.emailExists(ContactGenerator.email(probe), 0);
+    }
+
+    /**
+     * Búsqueda exacta de un teléfono escrito con otro formato, en el índice de {@code phone_norm}.
+     */
+    @Benchmark
+    public List<Contact> findByPhone() {
+        probe = (probe + 7919) % size;
+        return dao.findByPhone(ContactGenerator.contact(probe).getPhone().replace(" ", "").replace("+", "00"));
+    }
+
+    /**
+     * El mismo teléfono por la búsqueda de texto, tal como se guardó; la referencia para {@link #findByPhone()}.
+     */
+    @Benchmark
+    public List<Contact> searchPhone() {
+        probe = (probe + 7919) % size;
+        return dao.searchContacts(ContactGenerator.contact(probe).getPhone());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void getAllContacts(Blackhole blackhole) {
+        // No depende de la selectividad; se ejecuta con cada valor solo por simplicidad del estado
+        blackhole.consume(dao.getAllContacts());
+    }
+}
@@ -0,0 +1,57 @@
+package com.juliandev.bench;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ImportResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserción individual y por lotes sobre una copia de la base de datos de cada tamaño.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class ContactWriteBenchmark {
+    private static final int BULK_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Path db;
+    private ContactDAO dao;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        db = BenchmarkDatabase.copy(size);
+        dao = BenchmarkDatabase.open(db, "balanced");
+        next = size;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dao.close();
+        BenchmarkDatabase.deleteDatabase(db);
+    }
+
+    @Benchmark
+    public Contact insertSingle() {
+        return dao.saveContact(ContactGenerator.contact(next++));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public ImportResult insertBulk() {
+        List<Contact> batch = ContactGenerator.contacts(next, BULK_SIZE);
+        next += BULK_SIZE;
+        return dao.importContacts(batch, BULK_SIZE);
+    }
+}
@@ -0,0 +1,97 @@
+package com.juliandev.bench;
+
+import com.juliandev.export.CsvExporter;
+import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ImportResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportación CSV y serialización/deserialización JSON de la agenda completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class ExportBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private ContactDAO dao;
+    private Path workDir;
+    private File jsonInput;
+    private Path importDb;
+    private ContactDAO importDao;
+    private CsvExporter csvExporter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dao = BenchmarkDatabase.open(BenchmarkDatabase.prepare(size), "balanced");
+        csvExporter = new CsvExporter(dao);
+        workDir = Files.createTempDirectory("contacts-export-");
+        jsonInput = workDir.resolve("input.json").toFile();
+        dao.serializeToJson(jsonInput);
+    }
+
+    @Setup(Level.Iteration)
+    public void freshImportTarget() throws IOException {
+        importDb = BenchmarkDatabase.empty();
+        importDao = BenchmarkDatabase.open(importDb, "balanced");
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropImportTarget() throws IOException {
+        importDao.close();
+        BenchmarkDatabase.deleteDatabase(importDb);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dao.close();
+        for (File file : workDir.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(workDir);
+    }
+
+    @Benchmark
+    public File exportCsv() throws IOException {
+        File file = workDir.resolve("contacts.csv").toFile();
+        csvExporter.export(file);
+        return file;
+    }
+
+    @Benchmark
+    public File exportCsvParallel() throws IOException {
+        File file = workDir.resolve("contacts-parallel.csv").toFile();
+        csvExporter.exportParallel(file, 4);
+        return file;
+    }
+
+    @Benchmark
+    public File exportCsvAndJson() throws IOException {
+        File csv = workDir.resolve("contacts-both.csv").toFile();
+        csvExporter.export(csv, workDir.resolve("contacts-both.json").toFile());
+        return csv;
+    }
+
+    @Benchmark
+    public File serializeJson() {
+        File file = workDir.resolve("contacts.json").toFile();
+        dao.serializeToJson(file);
+        return file;
+    }
+
+    @Benchmark
+    public ImportResult deserializeJson() {
+        return importDao.deserializeFromJson(jsonInput);
+    }
+}
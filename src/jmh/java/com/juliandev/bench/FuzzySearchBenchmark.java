@@ -0,0 +1,106 @@
+package com.juliandev.bench;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactDAO;
+import com.juliandev.search.FuzzyNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda aproximada de {@link FuzzyNameIndex} con consultas mal escritas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-native-access=ALL-UNNAMED", "-Xmx3g"})
+public class FuzzySearchBenchmark {
+    private static final String[] SYLLABLES = {
+            "ba", "be", "bo", "ca", "ce", "chi", "da", "de", "do", "fa", "fe", "ga", "gi", "gu", "ja",
+            "je", "jo", "ka", "la", "le", "li", "lo", "ma", "me", "mi", "mo", "na", "ne", "ni", "no",
+            "pa", "pe", "qui", "ra", "re", "ri", "ro", "sa", "se", "si", "so", "ta", "te", "ti", "to",
+            "va", "ve", "vi", "xa", "ya", "za", "zo", "lu", "mu", "ru", "su", "tu", "nu", "bra", "tri"
+    };
+    private static final String[] GENERATED_QUERIES = {
+            "Jhon Garsia", "lefebre", "Sanches", "dubua", "mari", "Fernandes Lucia", "Olivie Moro", "smit"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * generated: nombres de {@link ContactGenerator} (vocabulario de unas 40 palabras);
+     * syllables: nombres inventados con sílabas al azar, con un vocabulario que crece con la agenda.
+     */
+    @Param({"generated", "syllables"})
+    public String names;
+
+    private Path db;
+    private ContactDAO dao;
+    private FuzzyNameIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (names.equals("generated")) {
+            dao = BenchmarkDatabase.open(BenchmarkDatabase.prepare(size), "balanced");
+            index = new FuzzyNameIndex(dao);
+            index.load();
+            queries = GENERATED_QUERIES;
+            return;
+        }
+        // El índice se alimenta como lo haría el DAO al guardar, sin escribir en la base de datos
+        db = BenchmarkDatabase.empty();
+        dao = BenchmarkDatabase.open(db, "balanced");
+        index = new FuzzyNameIndex(dao);
+        index.load();
+        SplittableRandom random = new SplittableRandom(7);
+        queries = new String[64];
+        for (int i = 1; i <= size; i++) {
+            String name = syllableWord(random) + " " + syllableWord(random);
+            index.contactSaved(new Contact(i, name, "contact" + i + "@example.com", null, null, false));
+            if (i % (size / queries.length) == 0 && i / (size / queries.length) <= queries.length) {
+                queries[i / (size / queries.length) - 1] = misspell(name, random);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dao.close();
+        if (db != null) {
+            BenchmarkDatabase.deleteDatabase(db);
+        }
+    }
+
+    @Benchmark
+    public int[] search() {
+        next = (next + 1) % queries.length;
+        return index.search(queries[next]);
+    }
+
+    private static String syllableWord(SplittableRandom random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            word.append('z');
+        }
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    // Cambia una letra que no sea la primera
+    private static String misspell(String name, SplittableRandom random) {
+        char[] chars = name.toCharArray();
+        chars[1 + random.nextInt(chars.length - 1)] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+}
@@ -0,0 +1,63 @@
+package com.juliandev.bench;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactDAO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento concurrente de lectura/escritura de cada {@link com.juliandev.model.StorageProfile}:
+ * cuatro hilos lectores y un escritor sobre la misma base de datos.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class StorageProfileBenchmark {
+
+    @Param({"legacy", "durable", "balanced", "fast"})
+    public String profile;
+
+    @Param({"100000"})
+    public int size;
+
+    private Path db;
+    private ContactDAO dao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        db = BenchmarkDatabase.copy(size);
+        dao = BenchmarkDatabase.open(db, profile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dao.close();
+        BenchmarkDatabase.deleteDatabase(db);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public List<Contact> read() {
+        return dao.getContactsAfter(ThreadLocalRandom.current().nextInt(size), 50);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Contact write() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(size);
+        Contact contact = ContactGenerator.contact(id - 1);
+        contact.setId(id);
+        contact.setFavorite(ThreadLocalRandom.current().nextBoolean());
+        return dao.updateContact(contact);
+    }
+}
@@ -3,11 +3,24 @@ package com.juliandev.app;
 
 import com.formdev.flatlaf.FlatLightLaf;
 import com.juliandev.controller.ContactController;
+import com.juliandev.controller.TaskScheduler;
+import com.juliandev.metrics.EdtWatchdog;
+import com.juliandev.metrics.MetricsReporter;
 import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ContactSnapshot;
+import com.juliandev.model.StorageProfile;
+import com.juliandev.search.ContactSearchEngine;
+import com.juliandev.search.ContactSearchIndex;
+import com.juliandev.search.FuzzyNameIndex;
 import com.juliandev.view.ContactView;
 import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class ContactManagerApp {
     public static void main(String[] args) {
@@ -22,12 +35,81 @@ public class ContactManagerApp {
         Locale locale = Locale.getDefault();
         ResourceBundle messages = ResourceBundle.getBundle("messages", locale);
 
+        // Métricas (-Dcontacts.metrics=true): tiempos del EDT y volcado periódico a un archivo
+        EdtWatchdog watchdog = EdtWatchdog.install();
+        MetricsReporter reporter = MetricsReporter.start();
+
+        // Copia binaria de la tabla (si existe y está íntegra) para pintar la primera pantalla
+        // mientras se abre la base de datos
+        StorageProfile profile = StorageProfile.load();
+        ContactSnapshot snapshot = openSnapshot(profile);
+
         // Crear y mostrar la ventana principal
+        ContactView view = onEventThread(() -> {
+            ContactView created = new ContactView(messages);
+            if (snapshot != null) {
+                created.getTableModel().showPaged(snapshot.getIds(), snapshot::getContactsByIds);
+            }
+            created.setVisible(true);
+            return created;
+        });
+
+        ContactDAO dao = new ContactDAO(profile);
+        // Motor de búsqueda: "sql" (FTS5, por defecto), "memory" (índice de trigramas en memoria)
+        // o "fuzzy" (nombres aproximados y fonéticos, ordenados por relevancia)
+        ContactSearchEngine searchIndex = null;
+        String searchEngine = System.getProperty("contacts.search.engine", "sql");
+        if ("memory".equalsIgnoreCase(searchEngine)) {
+            ContactSearchIndex index = new ContactSearchIndex(dao);
+            index.loadAsync();
+            searchIndex = index;
+        } else if ("fuzzy".equalsIgnoreCase(searchEngine)) {
+            FuzzyNameIndex index = new FuzzyNameIndex(dao);
+            index.loadAsync();
+            searchIndex = index;
+        }
+        ContactSearchEngine engine = searchIndex;
         SwingUtilities.invokeLater(() -> {
-            ContactView view = new ContactView(messages);
-            ContactDAO dao = new ContactDAO();
-            ContactController controller = new ContactController(view, dao, messages, locale);
-            view.setVisible(true);
+            ContactController controller = new ContactController(view, dao, messages, locale, engine, snapshot);
+            if (reporter != null) {
+                for (TaskScheduler.Lane lane : TaskScheduler.Lane.values()) {
+                    reporter.addSource(() -> controller.getScheduler().getMetrics(lane));
+                }
+                reporter.addSource(() -> controller.getCache().getStats());
+                reporter.addSource(() -> watchdog);
+            }
+            // Al salir: confirmar las escrituras pendientes y cerrar el pool de conexiones
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                controller.shutdown();
+                dao.close();
+                if (reporter != null) {
+                    reporter.close();
+                }
+            }, "contact-manager-shutdown"));
         });
     }
-}
\ No newline at end of file
+
+    // La generación más reciente que esté íntegra; si no hay ninguna se arranca sin copia
+    private static ContactSnapshot openSnapshot(StorageProfile profile) {
+        for (File file : ContactSnapshot.filesFor(profile)) {
+            try {
+                return ContactSnapshot.open(file);
+            } catch (IOException e) {
+                System.err.println("Ignoring contact snapshot: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static <T> T onEventThread(Supplier<T> task) {
+        AtomicReference<T> result = new AtomicReference<>();
+        try {
+            SwingUtilities.invokeAndWait(() -> result.set(task.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException("Error creating main window: " + e.getCause().getMessage());
+        }
+        return result.get();
+    }
+}
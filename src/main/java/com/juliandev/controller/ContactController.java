@@ -1,14 +1,25 @@
 package com.juliandev.controller;
 
+import com.juliandev.dedup.DedupReport;
+import com.juliandev.dedup.DuplicateDetector;
+import com.juliandev.export.CsvExporter;
+import com.juliandev.model.AsyncContactDAO;
 import com.juliandev.model.Contact;
+import com.juliandev.model.ContactCache;
 import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ContactQuery;
+import com.juliandev.model.ContactSnapshot;
+import com.juliandev.model.SyncResult;
+import com.juliandev.model.UpsertResult;
+import com.juliandev.model.WriteBehindQueue;
+import com.juliandev.search.ContactSearchEngine;
 import com.juliandev.view.ContactView;
+import com.juliandev.view.IconCache;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.image.BufferedImage;
 import java.io.*;
+import java.text.MessageFormat;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -16,18 +27,58 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 public class ContactController {
+    // Nombre de la marca con la secuencia de la última exportación incremental
+    private static final String EXPORT_SYNC_MARK = "export";
+
     private ContactView view;
     private ContactDAO dao;
     private ResourceBundle messages;
     private Locale locale;
     private final ReentrantLock exportLock = new ReentrantLock();
+    private final CsvExporter csvExporter;
+    private final WriteBehindQueue writeQueue;
+    private final TaskScheduler scheduler;
+    private final AsyncContactDAO asyncDao;
+    private final ContactCache cache;
     private Contact selectedContact;
+    // Orden y filtros del listado; el ordenado y la paginación se hacen en SQLite
+    private ContactQuery currentQuery = ContactQuery.all();
+    private final SearchExecutor searchExecutor;
+    private final ContactSearchEngine searchIndex;
+    // Copia binaria con la que se mostró la primera pantalla; null si no había una válida
+    private final ContactSnapshot snapshot;
 
     public ContactController(ContactView view, ContactDAO dao, ResourceBundle messages, Locale locale) {
+        this(view, dao, messages, locale, null);
+    }
+
+    public ContactController(ContactView view, ContactDAO dao, ResourceBundle messages, Locale locale,
+                             ContactSearchEngine searchIndex) {
+        this(view, dao, messages, locale, searchIndex, null);
+    }
+
+    /**
+     * @param searchIndex índice en memoria a usar para las búsquedas, o {@code null} para buscar en SQLite
+     * @param snapshot copia binaria que ya muestra la tabla, o {@code null}; al arrancar se comprueba
+     *                 contra la base de datos y se regenera si está desfasada
+     */
+    public ContactController(ContactView view, ContactDAO dao, ResourceBundle messages, Locale locale,
+                             ContactSearchEngine searchIndex, ContactSnapshot snapshot) {
         this.view = view;
+        this.snapshot = snapshot;
+        this.searchIndex = searchIndex;
         this.dao = dao;
         this.messages = messages;
         this.locale = locale;
+        this.scheduler = new TaskScheduler(dao.getStorageProfile().getPoolSize());
+        this.cache = new ContactCache(dao);
+        this.searchExecutor = new SearchExecutor(cache, scheduler, searchListener());
+        this.csvExporter = new CsvExporter(dao);
+        this.writeQueue = new WriteBehindQueue(dao);
+        // Las comprobaciones e inserciones del formulario comparten el carril de escritura. Sus hilos son
+        // virtuales, pero el carril limita las tareas simultáneas (una por defecto), y con ellas los
+        // portadores que fijan las llamadas nativas a SQLite
+        this.asyncDao = new AsyncContactDAO(dao, scheduler.executor(TaskScheduler.Lane.WRITE));
         initController();
     }
 
@@ -49,8 +100,62 @@ public class ContactController {
         view.getLanguageComboBox().addActionListener(e -> changeLanguage());
         view.getExportMenuItem().addActionListener(e -> exportToCSV());
         view.getImportJsonMenuItem().addActionListener(e -> importFromJson());
+        view.getExportChangesMenuItem().addActionListener(e -> exportChanges());
+        view.getImportChangesMenuItem().addActionListener(e -> importChanges());
+        view.getMergeDuplicatesMenuItem().addActionListener(e -> mergeDuplicates());
         view.getContactTable().getSelectionModel().addListSelectionListener(e -> selectContact());
+        view.getContactTable().getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = view.getContactTable().columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortBy(view.getContactTable().convertColumnIndexToModel(column));
+                }
+            }
+        });
         loadContacts();
+        refreshSnapshot();
+        normalizePendingContacts();
+    }
+
+    // Bases de datos anteriores a las columnas normalizadas: se rellenan en segundo plano
+    private void normalizePendingContacts() {
+        if (!dao.hasPendingNormalization()) {
+            checkDuplicateEmails();
+            return;
+        }
+        scheduler.execute(TaskScheduler.Lane.BULK, dao::normalizePendingContacts, normalized -> checkDuplicateEmails(),
+                e -> System.err.println("Error normalizing contacts: " + e.getMessage()));
+    }
+
+    // Correos que solo cambian en mayúsculas o espacios impiden el índice único de email_norm: se ofrece
+    // fusionarlos, y mientras no se haga esos correos pueden seguir repitiéndose
+    private void checkDuplicateEmails() {
+        if (!dao.hasDuplicateNormalizedEmails()) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            int confirm = JOptionPane.showConfirmDialog(view,
+                    messages.getString("confirm.merge.emails"),
+                    messages.getString("confirm.title"),
+                    JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (confirm == JOptionPane.YES_OPTION) {
+                mergeDuplicates();
+            }
+        });
+    }
+
+    // Regenera la copia binaria si falta o si su versión ya no coincide con la de la base de datos.
+    // La copia nueva es otro archivo: la que sigue proyectada y mostrando la tabla no se toca
+    private void refreshSnapshot() {
+        long snapshotVersion = snapshot == null ? -1 : snapshot.getDataVersion();
+        scheduler.execute(TaskScheduler.Lane.BULK, () -> {
+            if (snapshotVersion == dao.getDataVersion()) {
+                return false;
+            }
+            ContactSnapshot.write(dao);
+            return true;
+        }, rebuilt -> {}, e -> System.err.println("Error writing contact snapshot: " + e.getMessage()));
     }
 
     private void saveContact() {
@@ -75,32 +180,19 @@ public class ContactController {
         view.getSaveButton().setEnabled(false);
         view.getStatusLabel().setText(messages.getString("status.saving"));
 
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() {
-                return dao.emailExists(email, 0);
+        Contact contact = new Contact(0, name, email, phone, contactType, false);
+        asyncDao.insertIfEmailAbsent(contact).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            view.getSaveButton().setEnabled(true);
+            if (error != null) {
+                showError(messages.getString("error.database"));
+            } else if (result.getStatus() == UpsertResult.Status.CONFLICT) {
+                showError(messages.getString("error.email.exists"));
+            } else {
+                contactInserted(result.getContact());
+                clearForm();
+                view.getStatusLabel().setText(messages.getString("status.saved"));
             }
-
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
-                        showError(messages.getString("error.email.exists"));
-                    } else {
-                        Contact contact = new Contact(0, name, email, phone, contactType, false);
-                        dao.saveContact(contact);
-                        loadContacts();
-                        clearForm();
-                        view.getStatusLabel().setText(messages.getString("status.saved"));
-                    }
-                } catch (Exception ex) {
-                    showError(messages.getString("error.database"));
-                } finally {
-                    view.getSaveButton().setEnabled(true);
-                }
-            }
-        };
-        worker.execute();
+        }));
     }
 
     private void editContact() {
@@ -130,35 +222,26 @@ public class ContactController {
         view.getEditButton().setEnabled(false);
         view.getStatusLabel().setText(messages.getString("status.saving"));
 
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() {
-                return dao.emailExists(email, selectedContact.getId());
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
+        Contact edited = copyOf(selectedContact);
+        edited.setName(name);
+        edited.setEmail(email);
+        edited.setPhone(phone);
+        edited.setContactType(contactType);
+        // Primero se confirman los cambios de favorito pendientes, para que se guarden en el orden en que se hicieron
+        writeQueue.flush()
+                .thenCompose(flushed -> asyncDao.updateIfEmailAvailable(edited))
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                    view.getEditButton().setEnabled(true);
+                    if (error != null) {
+                        showError(messages.getString("error.database"));
+                    } else if (result.getStatus() == UpsertResult.Status.CONFLICT) {
                         showError(messages.getString("error.email.exists"));
                     } else {
-                        selectedContact.setName(name);
-                        selectedContact.setEmail(email);
-                        selectedContact.setPhone(phone);
-                        selectedContact.setContactType(contactType);
-                        dao.updateContact(selectedContact);
-                        loadContacts();
+                        contactUpdated(result.getContact());
                         clearForm();
                         view.getStatusLabel().setText(messages.getString("status.updated"));
                     }
-                } catch (Exception ex) {
-                    showError(messages.getString("error.database"));
-                } finally {
-                    view.getEditButton().setEnabled(true);
-                }
-            }
-        };
-        worker.execute();
+                }));
     }
 
     private void deleteContact() {
@@ -175,30 +258,18 @@ public class ContactController {
             return;
         }
 
-        view.getDeleteButton().setEnabled(false);
         view.getStatusLabel().setText(messages.getString("status.deleting"));
-
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                dao.deleteContact(selectedContact.getId());
-                return null;
+        int id = selectedContact.getId();
+        // El borrado pasa por la cola para no adelantarse a actualizaciones pendientes del mismo contacto
+        writeQueue.delete(id).whenComplete((deleted, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                showError(messages.getString("error.database"));
+                return;
             }
-
-            @Override
-            protected void done() {
-                try {
-                    loadContacts();
-                    clearForm();
-                    view.getStatusLabel().setText(messages.getString("status.deleted"));
-                } catch (Exception ex) {
-                    showError(messages.getString("error.database"));
-                } finally {
-                    view.getDeleteButton().setEnabled(true);
-                }
-            }
-        };
-        worker.execute();
+            view.getTableModel().contactDeleted(id);
+            view.getStatusLabel().setText(messages.getString("status.deleted"));
+        }));
+        clearForm();
     }
 
     private void toggleFavorite() {
@@ -207,94 +278,130 @@ public class ContactController {
             return;
         }
 
-        view.getFavoriteButton().setEnabled(false);
         view.getStatusLabel().setText(messages.getString("status.updating"));
+        // La tabla se actualiza al momento; los clics repetidos se combinan en una sola escritura, que
+        // solo toca la columna favorite y no deshace una edición guardada mientras tanto
+        selectedContact.setFavorite(!selectedContact.isFavorite());
+        view.getTableModel().contactUpdated(copyOf(selectedContact));
+        updateFavoriteButton();
+        writeQueue.setFavorite(selectedContact.getId(), selectedContact.isFavorite()).whenComplete(
+                (updated, error) -> SwingUtilities.invokeLater(() -> writeCompleted(updated, error)));
+    }
 
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                selectedContact.setFavorite(!selectedContact.isFavorite());
-                dao.updateContact(selectedContact);
-                return null;
-            }
+    // Confirmación de una escritura diferida; si falló, se recarga para descartar el cambio ya mostrado
+    private void writeCompleted(Contact updated, Throwable error) {
+        if (error != null) {
+            showError(messages.getString("error.database"));
+            loadContacts();
+            return;
+        }
+        contactUpdated(updated);
+        view.getStatusLabel().setText(messages.getString("status.updated"));
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    loadContacts();
-                    updateFavoriteButton();
-                    view.getStatusLabel().setText(messages.getString("status.updated"));
-                } catch (Exception ex) {
-                    showError(messages.getString("error.database"));
-                } finally {
-                    view.getFavoriteButton().setEnabled(true);
-                }
-            }
-        };
-        worker.execute();
+    public TaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public ContactCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Confirma las escrituras pendientes; se llama al cerrar la aplicación.
+     */
+    public void shutdown() {
+        writeQueue.close();
+        scheduler.close();
+        asyncDao.close();
+        cache.close();
+    }
+
+    // Aplica una inserción a la tabla; con una búsqueda activa se repite la búsqueda
+    // y con otro orden se recarga para que la fila aparezca en su sitio
+    private void contactInserted(Contact contact) {
+        if (!view.getSearchField().getText().trim().isEmpty()) {
+            searchContacts();
+        } else if (view.getTableModel().isPaged() && view.getTableModel().isIdOrder()) {
+            view.getTableModel().contactInserted(contact);
+        } else {
+            loadContacts();
+        }
+    }
+
+    // Un clic en una cabecera ordena por esa columna; otro clic invierte el sentido
+    private void sortBy(int column) {
+        ContactQuery.SortColumn sortColumn = ContactQuery.SortColumn.forTableColumn(column);
+        boolean ascending = sortColumn != currentQuery.getSortColumn() || !currentQuery.isAscending();
+        currentQuery = currentQuery.sortedBy(sortColumn, ascending);
+        view.setSortIndicator(column, ascending);
+        view.getSearchField().setText("");
+        searchExecutor.cancel();
+        loadContacts();
+    }
+
+    private void contactUpdated(Contact contact) {
+        if (contact == null) {
+            loadContacts();
+        } else {
+            view.getTableModel().contactUpdated(contact);
+        }
     }
 
     private void loadContacts() {
-        SwingWorker<List<Contact>, Void> worker = new SwingWorker<>() {
+        ContactQuery query = currentQuery;
+        scheduler.execute(TaskScheduler.Lane.INTERACTIVE, () -> dao.queryContactIds(query), ids -> {
+            view.getTableModel().showPaged(ids, cache::getContactsByIds, query.isIdOrder());
+            view.getStatusLabel().setText(messages.getString("status.loaded"));
+        }, e -> showError(messages.getString("error.database")));
+    }
+
+    private void searchContacts() {
+        String query = view.getSearchField().getText().trim();
+        if (query.isEmpty()) {
+            searchExecutor.cancel();
+            loadContacts();
+            return;
+        }
+        if (searchIndex != null && searchIndex.isReady()) {
+            searchExecutor.submit(query, searchIndex);
+        } else {
+            searchExecutor.submit(query);
+        }
+    }
+
+    private SearchExecutor.Listener searchListener() {
+        return new SearchExecutor.Listener() {
             @Override
-            protected List<Contact> doInBackground() {
-                return dao.getAllContacts();
+            public void firstRows(List<Contact> rows) {
+                view.getTableModel().showContacts(rows);
             }
 
             @Override
-            protected void done() {
-                try {
-                    DefaultTableModel model = view.getTableModel();
-                    model.setRowCount(0);
-                    for (Contact contact : get()) {
-                        model.addRow(new Object[]{
-                                contact.getId(),
-                                contact.getName(),
-                                contact.getEmail(),
-                                contact.getPhone(),
-                                contact.getContactType(),
-                                contact.isFavorite()
-                        });
-                    }
-                    view.getStatusLabel().setText(messages.getString("status.loaded"));
-                } catch (Exception e) {
-                    showError(messages.getString("error.database"));
-                }
+            public void moreRows(List<Contact> rows) {
+                view.getTableModel().appendContacts(rows);
             }
-        };
-        worker.execute();
-    }
 
-    private void searchContacts() {
-        String query = view.getSearchField().getText().trim();
-        SwingWorker<List<Contact>, Void> worker = new SwingWorker<>() {
             @Override
-            protected List<Contact> doInBackground() {
-                return dao.searchContacts(query);
+            public void completed(int rowCount, long firstRowMillis, long totalMillis) {
+                view.getStatusLabel().setText(MessageFormat.format(messages.getString("status.search.timing"),
+                        rowCount, firstRowMillis, totalMillis));
             }
 
+            // Resultados del índice en memoria; la tabla carga por páginas solo las filas visibles y, si el
+            // motor ordena por relevancia, las muestra en ese orden
             @Override
-            protected void done() {
-                try {
-                    DefaultTableModel model = view.getTableModel();
-                    model.setRowCount(0);
-                    for (Contact contact : get()) {
-                        model.addRow(new Object[]{
-                                contact.getId(),
-                                contact.getName(),
-                                contact.getEmail(),
-                                contact.getPhone(),
-                                contact.getContactType(),
-                                contact.isFavorite()
-                        });
-                    }
-                    view.getStatusLabel().setText(messages.getString("status.search.completed"));
-                } catch (Exception e) {
-                    showError(messages.getString("error.database"));
-                }
+            public void idsFound(int[] ids, long millis) {
+                view.getTableModel().showPaged(ids, cache::getContactsByIds, !searchIndex.isRanked());
+                view.getStatusLabel().setText(MessageFormat.format(messages.getString("status.search.timing"),
+                        ids.length, millis, millis));
+            }
+
+            @Override
+            public void failed(Exception e) {
+                showError(messages.getString("error.database"));
             }
         };
-        worker.execute();
     }
 
     private void exportToCSV() {
@@ -307,42 +414,24 @@ public class ContactController {
         File file = fileChooser.getSelectedFile();
         view.getStatusLabel().setText(messages.getString("status.exporting"));
 
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                exportLock.lock();
-                try {
-                    List<Contact> contacts = dao.getAllContacts();
-                    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                        writer.write("ID,Name,Email,Phone,Type,Favorite\n");
-                        for (Contact contact : contacts) {
-                            writer.write(String.format("%d,%s,%s,%s,%s,%b\n",
-                                    contact.getId(),
-                                    escapeCSV(contact.getName()),
-                                    escapeCSV(contact.getEmail()),
-                                    escapeCSV(contact.getPhone()),
-                                    escapeCSV(contact.getContactType()),
-                                    contact.isFavorite()));
-                        }
-                    }
-                    File jsonFile = new File(file.getParent(), "contacts.json");
+        scheduler.execute(TaskScheduler.Lane.BULK, () -> {
+            exportLock.lock();
+            try {
+                File jsonFile = new File(file.getParent(), "contacts.json");
+                int threads = Integer.getInteger("contacts.export.threads", 1);
+                if (threads > 1) {
+                    csvExporter.exportParallel(file, threads);
                     dao.serializeToJson(jsonFile);
-                } finally {
-                    exportLock.unlock();
-                }
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    view.getStatusLabel().setText(messages.getString("status.exported"));
-                } catch (Exception e) {
-                    showError(messages.getString("error.export"));
+                } else {
+                    // CSV y JSON en un único recorrido de la tabla
+                    csvExporter.export(file, jsonFile);
                 }
+            } finally {
+                exportLock.unlock();
             }
-        };
-        worker.execute();
+            return null;
+        }, done -> view.getStatusLabel().setText(messages.getString("status.exported")),
+                e -> showError(messages.getString("error.export")));
     }
 
     private void importFromJson() {
@@ -365,37 +454,94 @@ public class ContactController {
         File file = fileChooser.getSelectedFile();
         view.getStatusLabel().setText(messages.getString("status.importing"));
 
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                dao.deserializeFromJson(file);
-                return null;
+        scheduler.execute(TaskScheduler.Lane.BULK, () -> dao.deserializeFromJson(file), result -> {
+            loadContacts();
+            view.getStatusLabel().setText(MessageFormat.format(messages.getString("status.imported.summary"),
+                    result.getInserted(), result.getSkipped()));
+        }, e -> showError(messages.getString("error.import")));
+    }
+
+    // Exporta los cambios posteriores a la última exportación incremental y avanza la marca
+    private void exportChanges() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("contacts-changes.json"));
+        if (fileChooser.showSaveDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = fileChooser.getSelectedFile();
+        view.getStatusLabel().setText(messages.getString("status.exporting"));
+
+        scheduler.execute(TaskScheduler.Lane.BULK, () -> {
+            exportLock.lock();
+            try {
+                SyncResult result = dao.exportChanges(dao.getSyncMark(EXPORT_SYNC_MARK), file);
+                dao.setSyncMark(EXPORT_SYNC_MARK, result.getToSequence());
+                return result;
+            } finally {
+                exportLock.unlock();
             }
+        }, result -> view.getStatusLabel().setText(MessageFormat.format(messages.getString("status.changes.exported"),
+                result.getUpserted() + result.getDeleted(), result.getFromSequence(), result.getToSequence())),
+                e -> showError(messages.getString("error.export")));
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    loadContacts();
-                    view.getStatusLabel().setText(messages.getString("status.imported"));
-                } catch (Exception e) {
-                    showError(messages.getString("error.import"));
-                }
+    private void importChanges() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("JSON Files (*.json)", "json"));
+        if (fileChooser.showOpenDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = fileChooser.getSelectedFile();
+        view.getStatusLabel().setText(messages.getString("status.importing"));
+
+        scheduler.execute(TaskScheduler.Lane.BULK, () -> dao.applyChanges(file), result -> {
+            loadContacts();
+            view.getStatusLabel().setText(MessageFormat.format(messages.getString("status.changes.applied"),
+                    result.getUpserted(), result.getDeleted(), result.getUnchanged(), result.getConflicts()));
+        }, e -> showError(messages.getString("error.import")));
+    }
+
+    // Busca duplicados en segundo plano y, si el usuario confirma, los fusiona en una sola transacción
+    private void mergeDuplicates() {
+        view.getStatusLabel().setText(messages.getString("status.dedup.searching"));
+        DuplicateDetector detector = new DuplicateDetector(dao);
+        scheduler.execute(TaskScheduler.Lane.BULK, detector::detect, report -> {
+            if (report.getProposals().isEmpty()) {
+                view.getStatusLabel().setText(messages.getString("status.dedup.none"));
+                return;
             }
-        };
-        worker.execute();
+            int confirm = JOptionPane.showConfirmDialog(view,
+                    MessageFormat.format(messages.getString("confirm.merge.duplicates"),
+                            report.getDuplicateCount(), report.getProposals().size()),
+                    messages.getString("confirm.title"),
+                    JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) {
+                view.getStatusLabel().setText(messages.getString("status.ready"));
+                return;
+            }
+            scheduler.execute(TaskScheduler.Lane.BULK, () -> {
+                int merged = detector.apply(report);
+                // Sin correos repetidos ya se puede crear el índice único
+                if (dao.hasDuplicateNormalizedEmails()) {
+                    dao.retryUniqueEmailIndex();
+                }
+                return merged;
+            }, merged -> {
+                loadContacts();
+                view.getStatusLabel().setText(MessageFormat.format(messages.getString("status.dedup.merged"), merged));
+            }, e -> showError(messages.getString("error.database")));
+        }, e -> showError(messages.getString("error.database")));
     }
 
     private void selectContact() {
         int selectedRow = view.getContactTable().getSelectedRow();
-        if (selectedRow >= 0) {
-            selectedContact = new Contact(
-                    (int) view.getTableModel().getValueAt(selectedRow, 0),
-                    (String) view.getTableModel().getValueAt(selectedRow, 1),
-                    (String) view.getTableModel().getValueAt(selectedRow, 2),
-                    (String) view.getTableModel().getValueAt(selectedRow, 3),
-                    (String) view.getTableModel().getValueAt(selectedRow, 4),
-                    (Boolean) view.getTableModel().getValueAt(selectedRow, 5)
-            );
+        Contact contact = selectedRow >= 0
+                ? view.getTableModel().getContactAt(view.getContactTable().convertRowIndexToModel(selectedRow))
+                : null;
+        if (contact != null) {
+            selectedContact = copyOf(contact);
             view.getNameField().setText(selectedContact.getName());
             view.getEmailField().setText(selectedContact.getEmail());
             view.getPhoneField().setText(selectedContact.getPhone());
@@ -407,6 +553,17 @@ public class ContactController {
         }
     }
 
+    private static Contact copyOf(Contact contact) {
+        return new Contact(
+                contact.getId(),
+                contact.getName(),
+                contact.getEmail(),
+                contact.getPhone(),
+                contact.getContactType(),
+                contact.isFavorite()
+        );
+    }
+
     private void clearForm() {
         view.getNameField().setText("");
         view.getEmailField().setText("");
@@ -436,7 +593,6 @@ public class ContactController {
     }
 
     private void updateFavoriteButton() {
-        System.out.println("Updating favorite button. Selected contact: " + (selectedContact != null ? selectedContact.getName() : "null"));
         ImageIcon icon;
         if (selectedContact != null && selectedContact.isFavorite()) {
             icon = scaleFavoriteIcon("/icons/favorite.png");
@@ -444,30 +600,12 @@ public class ContactController {
             icon = scaleFavoriteIcon("/icons/not_favorite.png");
         }
         view.getFavoriteButton().setIcon(icon);
-        System.out.println("Icon set: " + icon.getIconWidth() + "x" + icon.getIconHeight());
         view.getFavoriteButton().revalidate();
         view.getFavoriteButton().repaint();
     }
 
     private ImageIcon scaleFavoriteIcon(String iconPath) {
-        try {
-            ImageIcon icon = new ImageIcon(getClass().getResource(iconPath));
-            if (icon.getImage() == null) {
-                System.err.println("Icono no encontrado: " + iconPath);
-                return new ImageIcon(new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB));
-            }
-            BufferedImage bufferedImage = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2d = bufferedImage.createGraphics();
-            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            g2d.drawImage(icon.getImage(), 0, 0, 24, 24, null);
-            g2d.dispose();
-            ImageIcon scaledIcon = new ImageIcon(bufferedImage);
-            System.out.println("Scaled icon " + iconPath + ": " + scaledIcon.getIconWidth() + "x" + scaledIcon.getIconHeight());
-            return scaledIcon;
-        } catch (Exception e) {
-            System.err.println("Error al cargar el icono " + iconPath + ": " + e.getMessage());
-            return new ImageIcon(new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB));
-        }
+        return IconCache.get(iconPath, 24, 24);
     }
 
     private boolean isValidEmail(String email) {
@@ -475,14 +613,6 @@ public class ContactController {
         return Pattern.compile(emailRegex).matcher(email).matches();
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
     private void showError(String message) {
         JOptionPane.showMessageDialog(view, message, messages.getString("error.title"), JOptionPane.ERROR_MESSAGE);
     }
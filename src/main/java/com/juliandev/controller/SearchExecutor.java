@@ -0,0 +1,176 @@
+package com.juliandev.controller;
+
+import com.juliandev.model.CancellableQuery;
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactCache;
+import com.juliandev.search.ContactSearchEngine;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ejecuta búsquedas con semántica "la última gana": cada nueva búsqueda cancela la anterior
+ * y los resultados que llegan fuera de orden se descartan por número de secuencia.
+ * Las filas se entregan al EDT por tandas a medida que se leen; las búsquedas repetidas salen de la caché.
+ * Las búsquedas en un índice en memoria siguen las mismas reglas y entregan solo los IDs encontrados.
+ */
+public class SearchExecutor {
+
+    public interface Listener {
+        /** Primera tanda de resultados: sustituye el contenido de la tabla. */
+        void firstRows(List<Contact> rows);
+
+        /** Tandas siguientes: se añaden al final. */
+        void moreRows(List<Contact> rows);
+
+        void completed(int rowCount, long firstRowMillis, long totalMillis);
+
+        /** IDs encontrados por un índice en memoria, en el orden en que deben mostrarse. */
+        void idsFound(int[] ids, long millis);
+
+        void failed(Exception e);
+    }
+
+    private final ContactCache cache;
+    private final TaskScheduler scheduler;
+    private final Listener listener;
+    private final AtomicLong sequence = new AtomicLong();
+    private Future<?> current;
+    // Solo las búsquedas en SQLite se pueden interrumpir a mitad de consulta
+    private CancellableQuery currentHandle;
+
+    public SearchExecutor(ContactCache cache, TaskScheduler scheduler, Listener listener) {
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    /**
+     * Lanza una búsqueda y cancela la que estuviera en curso. Debe llamarse desde el EDT.
+     */
+    public void submit(String query) {
+        cancel();
+        SearchTask task = new SearchTask(sequence.incrementAndGet(), query);
+        current = scheduler.execute(TaskScheduler.Lane.INTERACTIVE, task::search, task::done, task::failed);
+        currentHandle = task.handle;
+    }
+
+    /**
+     * Lanza una búsqueda en el índice en memoria y cancela la que estuviera en curso. La búsqueda corre en
+     * el carril interactivo, no en el EDT: con consultas cortas el índice recorre todos los contactos.
+     * Debe llamarse desde el EDT.
+     */
+    public void submit(String query, ContactSearchEngine engine) {
+        cancel();
+        long seq = sequence.incrementAndGet();
+        long start = System.nanoTime();
+        current = scheduler.execute(TaskScheduler.Lane.INTERACTIVE, () -> engine.search(query), ids -> {
+            if (isLatest(seq)) {
+                listener.idsFound(ids, (System.nanoTime() - start) / 1_000_000);
+            }
+        }, e -> {
+            if (isLatest(seq)) {
+                listener.failed(e);
+            }
+        });
+    }
+
+    /**
+     * Cancela la búsqueda en curso, si la hay. Debe llamarse desde el EDT.
+     */
+    public void cancel() {
+        sequence.incrementAndGet();
+        if (currentHandle != null) {
+            currentHandle.cancel();
+            currentHandle = null;
+        }
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+
+    private boolean isLatest(long seq) {
+        return sequence.get() == seq;
+    }
+
+    private final class SearchTask {
+        private final long seq;
+        private final String query;
+        private final CancellableQuery handle = new CancellableQuery();
+        private final long startNanos = System.nanoTime();
+        private volatile long firstRowNanos = -1;
+        // Filas leídas pendientes de entregar; una sola entrega en cola del EDT a la vez
+        private final List<Contact> buffer = new ArrayList<>();
+        private boolean deliveryScheduled;
+        private boolean firstChunkDelivered;
+
+        SearchTask(long seq, String query) {
+            this.seq = seq;
+            this.query = query;
+        }
+
+        Integer search() {
+            int[] count = {0};
+            cache.searchContacts(query, handle, contact -> {
+                if (count[0]++ == 0) {
+                    firstRowNanos = System.nanoTime();
+                }
+                publish(contact);
+            });
+            return count[0];
+        }
+
+        private void publish(Contact contact) {
+            synchronized (buffer) {
+                buffer.add(contact);
+                if (deliveryScheduled) {
+                    return;
+                }
+                deliveryScheduled = true;
+            }
+            SwingUtilities.invokeLater(this::deliver);
+        }
+
+        private void deliver() {
+            List<Contact> rows;
+            synchronized (buffer) {
+                rows = new ArrayList<>(buffer);
+                buffer.clear();
+                deliveryScheduled = false;
+            }
+            if (!isLatest(seq)) {
+                return;
+            }
+            if (firstChunkDelivered) {
+                listener.moreRows(rows);
+            } else {
+                firstChunkDelivered = true;
+                listener.firstRows(rows);
+            }
+        }
+
+        // Las entregas pendientes se encolaron en el EDT antes que este aviso, así que ya se han aplicado
+        void done(int rows) {
+            if (!isLatest(seq)) {
+                return;
+            }
+            if (!firstChunkDelivered) {
+                firstChunkDelivered = true;
+                listener.firstRows(List.of());
+            }
+            long end = System.nanoTime();
+            long firstRow = firstRowNanos < 0 ? end : firstRowNanos;
+            listener.completed(rows, (firstRow - startNanos) / 1_000_000, (end - startNanos) / 1_000_000);
+        }
+
+        void failed(Exception e) {
+            if (isLatest(seq) && !handle.isCancelled()) {
+                listener.failed(e);
+            }
+        }
+    }
+}
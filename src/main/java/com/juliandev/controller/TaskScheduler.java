@@ -0,0 +1,236 @@
+package com.juliandev.controller;
+
+import com.juliandev.metrics.Metrics;
+
+import javax.swing.*;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Planificador central de las tareas en segundo plano de la interfaz.
+ *
+ * <p>Cada tarea corre en su propio hilo virtual, pero solo un número limitado de tareas de cada
+ * {@link Lane} puede usar la base de datos a la vez, de modo que una exportación larga no deja
+ * sin conexiones a las búsquedas. Los resultados se entregan en el EDT.</p>
+ */
+public class TaskScheduler implements AutoCloseable {
+
+    public enum Lane {
+        /** Lecturas que el usuario está esperando: cargar la tabla, buscar. */
+        INTERACTIVE,
+        /** Inserciones y modificaciones. SQLite admite un solo escritor. */
+        WRITE,
+        /** Importaciones y exportaciones. */
+        BULK
+    }
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("contact-task-", 0).factory());
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+
+    /**
+     * Reparte las conexiones del pool entre los carriles: uno para escrituras, uno para tareas
+     * masivas y el resto para lecturas interactivas. Cada límite puede cambiarse con
+     * {@code -Dcontacts.lane.<carril>.permits}.
+     */
+    public TaskScheduler(int poolSize) {
+        lanes.put(Lane.INTERACTIVE, new LaneState(Lane.INTERACTIVE, permits(Lane.INTERACTIVE, Math.max(1, poolSize - 2))));
+        lanes.put(Lane.WRITE, new LaneState(Lane.WRITE, permits(Lane.WRITE, 1)));
+        lanes.put(Lane.BULK, new LaneState(Lane.BULK, permits(Lane.BULK, 1)));
+    }
+
+    private static int permits(Lane lane, int defaultPermits) {
+        return Integer.getInteger("contacts.lane." + lane.name().toLowerCase(Locale.ROOT) + ".permits", defaultPermits);
+    }
+
+    /**
+     * Ejecuta la tarea en el carril indicado y entrega el resultado o el error en el EDT.
+     * Si la tarea se cancela con {@link Future#cancel(boolean) cancel(true)} no se llama a ninguno.
+     */
+    public <T> Future<T> execute(Lane lane, Callable<T> task, Consumer<? super T> onSuccess,
+                                 Consumer<? super Exception> onFailure) {
+        LaneState state = lanes.get(lane);
+        long submitted = System.nanoTime();
+        return executor.submit(() -> {
+            T result;
+            try {
+                result = state.run(task, submitted, true);
+            } catch (InterruptedException e) {
+                return null;
+            } catch (Exception e) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    SwingUtilities.invokeLater(() -> onFailure.accept(e));
+                }
+                throw e;
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                SwingUtilities.invokeLater(() -> onSuccess.accept(result));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Vista del carril como {@link Executor}, para APIs que reciben uno (por ejemplo
+     * {@code CompletableFuture.supplyAsync}). Las tareas respetan el límite del carril y cuentan
+     * en sus métricas, pero no pasan por el EDT; la espera de turno no se interrumpe, de modo que
+     * toda tarea aceptada llega a ejecutarse.
+     */
+    public Executor executor(Lane lane) {
+        LaneState state = lanes.get(lane);
+        return command -> {
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    state.run(Executors.callable(command), submitted, false);
+                } catch (Exception e) {
+                    // El propio comando gestiona sus errores (CompletableFuture los guarda en el futuro)
+                }
+            });
+        };
+    }
+
+    public LaneMetrics getMetrics(Lane lane) {
+        return lanes.get(lane).snapshot(lane);
+    }
+
+    /**
+     * Deja de aceptar tareas y espera unos segundos a que terminen las que están en curso.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class LaneState {
+        private final Semaphore permits;
+        private final int maxConcurrency;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder runNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+        // Histogramas de espera y ejecución cuando las métricas están activadas
+        private final String waitMetric;
+        private final String runMetric;
+
+        LaneState(Lane lane, int maxConcurrency) {
+            String prefix = "task." + lane.name().toLowerCase(Locale.ROOT);
+            this.waitMetric = prefix + ".wait";
+            this.runMetric = prefix + ".run";
+            this.maxConcurrency = maxConcurrency;
+            this.permits = new Semaphore(maxConcurrency, true);
+        }
+
+        <T> T run(Callable<T> task, long submitted, boolean interruptible) throws Exception {
+            queued.incrementAndGet();
+            try {
+                if (interruptible) {
+                    permits.acquire();
+                } else {
+                    permits.acquireUninterruptibly();
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+            long start = System.nanoTime();
+            Metrics.record(waitMetric, submitted);
+            waitNanos.add(start - submitted);
+            maxWaitNanos.accumulateAndGet(start - submitted, Math::max);
+            running.incrementAndGet();
+            try {
+                return task.call();
+            } catch (Exception e) {
+                if (!(e instanceof InterruptedException)) {
+                    failed.increment();
+                }
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                running.decrementAndGet();
+                permits.release();
+                completed.increment();
+                runNanos.add(elapsed);
+                maxRunNanos.accumulateAndGet(elapsed, Math::max);
+                Metrics.record(runMetric, start);
+            }
+        }
+
+        LaneMetrics snapshot(Lane lane) {
+            long done = completed.sum();
+            return new LaneMetrics(lane, maxConcurrency, queued.get(), running.get(), done, failed.sum(),
+                    done == 0 ? 0 : waitNanos.sum() / done / 1000, maxWaitNanos.get() / 1000,
+                    done == 0 ? 0 : runNanos.sum() / done / 1000, maxRunNanos.get() / 1000);
+        }
+    }
+
+    /**
+     * Estado de un carril: profundidad de la cola, tareas en curso y latencias en microsegundos
+     * (espera hasta obtener turno y ejecución), acumuladas desde el arranque.
+     */
+    public static final class LaneMetrics {
+        private final Lane lane;
+        private final int maxConcurrency;
+        private final int queued;
+        private final int running;
+        private final long completed;
+        private final long failed;
+        private final long meanWaitMicros;
+        private final long maxWaitMicros;
+        private final long meanRunMicros;
+        private final long maxRunMicros;
+
+        LaneMetrics(Lane lane, int maxConcurrency, int queued, int running, long completed, long failed,
+                    long meanWaitMicros, long maxWaitMicros, long meanRunMicros, long maxRunMicros) {
+            this.lane = lane;
+            this.maxConcurrency = maxConcurrency;
+            this.queued = queued;
+            this.running = running;
+            this.completed = completed;
+            this.failed = failed;
+            this.meanWaitMicros = meanWaitMicros;
+            this.maxWaitMicros = maxWaitMicros;
+            this.meanRunMicros = meanRunMicros;
+            this.maxRunMicros = maxRunMicros;
+        }
+
+        public Lane getLane() { return lane; }
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public int getQueued() { return queued; }
+        public int getRunning() { return running; }
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public long getMeanWaitMicros() { return meanWaitMicros; }
+        public long getMaxWaitMicros() { return maxWaitMicros; }
+        public long getMeanRunMicros() { return meanRunMicros; }
+        public long getMaxRunMicros() { return maxRunMicros; }
+
+        @Override
+        public String toString() {
+            return lane + "{max=" + maxConcurrency + ", queued=" + queued + ", running=" + running
+                    + ", completed=" + completed + ", failed=" + failed
+                    + ", wait(mean/max)=" + meanWaitMicros + "/" + maxWaitMicros + " us"
+                    + ", run(mean/max)=" + meanRunMicros + "/" + maxRunMicros + " us}";
+        }
+    }
+}
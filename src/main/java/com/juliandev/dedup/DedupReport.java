@@ -0,0 +1,77 @@
+package com.juliandev.dedup;
+
+import java.util.List;
+
+/**
+ * Resultado de una búsqueda de duplicados: las propuestas de fusión y el trabajo que costó
+ * encontrarlas, para medir el rendimiento del trabajo.
+ */
+public class DedupReport {
+    private final List<MergeProposal> proposals;
+    private final long dataVersion;
+    private final int rows;
+    private final long candidatePairs;
+    private final long duplicatePairs;
+    private final int skippedBlocks;
+    private final int threads;
+    private final long loadMillis;
+    private final long detectMillis;
+
+    public DedupReport(List<MergeProposal> proposals, long dataVersion, int rows, long candidatePairs,
+                       long duplicatePairs, int skippedBlocks, int threads, long loadMillis, long detectMillis) {
+        this.proposals = proposals;
+        this.dataVersion = dataVersion;
+        this.rows = rows;
+        this.candidatePairs = candidatePairs;
+        this.duplicatePairs = duplicatePairs;
+        this.skippedBlocks = skippedBlocks;
+        this.threads = threads;
+        this.loadMillis = loadMillis;
+        this.detectMillis = detectMillis;
+    }
+
+    public List<MergeProposal> getProposals() { return proposals; }
+    /**
+     * Versión de los datos sobre la que se calcularon las propuestas (ver {@code ContactDAO.getDataVersion()}).
+     */
+    public long getDataVersion() { return dataVersion; }
+    public int getRows() { return rows; }
+    /**
+     * Parejas que compartían alguna clave y se compararon.
+     */
+    public long getCandidatePairs() { return candidatePairs; }
+    public long getDuplicatePairs() { return duplicatePairs; }
+    /**
+     * Bloques con demasiados contactos para compararlos todos entre sí, que se saltaron.
+     */
+    public int getSkippedBlocks() { return skippedBlocks; }
+    public int getThreads() { return threads; }
+    public long getLoadMillis() { return loadMillis; }
+    /**
+     * Tiempo de normalizar, agrupar y comparar, sin contar la carga desde SQLite.
+     */
+    public long getDetectMillis() { return detectMillis; }
+
+    public int getDuplicateCount() {
+        int count = 0;
+        for (MergeProposal proposal : proposals) {
+            count += proposal.getDuplicateIds().length;
+        }
+        return count;
+    }
+
+    /**
+     * Contactos procesados por segundo en la fase de detección.
+     */
+    public double getRowsPerSecond() {
+        return rows * 1000.0 / Math.max(1, detectMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "DedupReport{rows=" + rows + ", candidatePairs=" + candidatePairs + ", duplicatePairs=" + duplicatePairs
+                + ", proposals=" + proposals.size() + ", duplicates=" + getDuplicateCount()
+                + ", skippedBlocks=" + skippedBlocks + ", threads=" + threads + ", loadMillis=" + loadMillis
+                + ", detectMillis=" + detectMillis + ", rowsPerSecond=" + Math.round(getRowsPerSecond()) + "}";
+    }
+}
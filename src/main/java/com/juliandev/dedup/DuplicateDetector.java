@@ -0,0 +1,502 @@
+package com.juliandev.dedup;
+
+import com.juliandev.metrics.Metrics;
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ContactNormalizer;
+import com.juliandev.model.ContactStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Busca contactos duplicados que los índices únicos no detectan: el mismo teléfono con otro formato
+ * y un nombre parecido, o el mismo correo con otras mayúsculas o espacios en bases de datos que ya
+ * tenían esos correos antes del índice único de {@code email_norm}.
+ *
+ * <p>El trabajo se hace en paralelo sobre un {@link ForkJoinPool} en tres fases:</p>
+ * <ol>
+ *   <li>Se normalizan correo y teléfono de cada contacto ({@link ContactNormalizer}) y se resumen
+ *       en claves hash de 64 bits.</li>
+ *   <li>Agrupación (blocking): cada clave se empaqueta con el número de fila y se reparte en cubos
+ *       por sus bits altos; cada cubo se ordena por separado, así que los contactos que comparten
+ *       clave quedan juntos formando un bloque.</li>
+ *   <li>Dentro de cada bloque se comparan todas las parejas. Con el mismo correo normalizado son
+ *       duplicados; con el mismo teléfono, solo si los nombres se parecen lo suficiente
+ *       (Jaro-Winkler por palabras).</li>
+ * </ol>
+ *
+ * <p>Las parejas encontradas se unen en grupos y cada grupo da una {@link MergeProposal}. Las
+ * propuestas se aplican en una sola transacción con {@link #apply(DedupReport)}.</p>
+ *
+ * <p>Configuración: {@code contacts.dedup.threads} (hilos, por defecto uno por procesador),
+ * {@code contacts.dedup.threshold} (confianza mínima en porcentaje, 85 por defecto) y
+ * {@code contacts.dedup.maxBlockSize} (bloques más grandes se saltan, 200 por defecto).</p>
+ */
+public class DuplicateDetector {
+    // Una entrada de la fase 2 lleva los 40 bits altos de la clave y el número de fila en los 24 bajos
+    private static final int ROW_BITS = 24;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+    private static final int BUCKET_BITS = 8;
+    private static final int ROWS_PER_TASK = 4096;
+    private static final long EMAIL_SEED = 0x9E3779B97F4A7C15L;
+    private static final long PHONE_SEED = 0xC2B2AE3D27D4EB4FL;
+    // Con el mismo correo la confianza parte de aquí y el nombre solo la ajusta
+    private static final double EMAIL_CONFIDENCE = 0.9;
+    // Cada palabra de más en uno de los dos nombres (un segundo apellido, por ejemplo) resta esto
+    private static final double EXTRA_WORD_PENALTY = 0.05;
+
+    private final ContactDAO dao;
+    private final int threads;
+    private final double threshold;
+    private final int maxBlockSize;
+
+    public DuplicateDetector(ContactDAO dao) {
+        this(dao, Integer.getInteger("contacts.dedup.threads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("contacts.dedup.threshold", 85) / 100.0,
+                Integer.getInteger("contacts.dedup.maxBlockSize", 200));
+    }
+
+    public DuplicateDetector(ContactDAO dao, int threads, double threshold, int maxBlockSize) {
+        this.dao = dao;
+        this.threads = Math.max(1, threads);
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    /**
+     * Carga todos los contactos y busca los duplicados.
+     */
+    public DedupReport detect() {
+        long start = Metrics.start();
+        try {
+            // La versión se lee antes de cargar: si algo cambia durante la carga, apply() lo rechaza
+            long dataVersion = dao.getDataVersion();
+            long loadStart = System.nanoTime();
+            ContactStore store = ContactStore.load(dao);
+            long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+            return detect(store, dataVersion, loadMillis);
+        } finally {
+            Metrics.record("dedup.detect", start);
+        }
+    }
+
+    /**
+     * Busca los duplicados en un almacén ya cargado, que corresponde a la versión {@code dataVersion}.
+     */
+    public DedupReport detect(ContactStore store, long dataVersion, long loadMillis) {
+        int rows = store.size();
+        if (rows > ROW_MASK) {
+            throw new IllegalArgumentException("Too many contacts for duplicate detection: " + rows);
+        }
+        long start = System.nanoTime();
+        long[] emailKeys = new long[rows];
+        long[] phoneKeys = new long[rows];
+        BucketResult[] results = new BucketResult[1 << BUCKET_BITS];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new RangeAction(0, rows, ROWS_PER_TASK, (from, to) -> {
+                for (int row = from; row < to; row++) {
+                    emailKeys[row] = key(EMAIL_SEED, ContactNormalizer.email(store.getEmail(row)));
+                    phoneKeys[row] = key(PHONE_SEED, ContactNormalizer.phone(store.getPhone(row)));
+                }
+            }));
+            int[] bucketStarts = new int[results.length + 1];
+            long[] entries = partition(emailKeys, phoneKeys, bucketStarts);
+            pool.invoke(new RangeAction(0, results.length, 1, (from, to) -> {
+                for (int bucket = from; bucket < to; bucket++) {
+                    results[bucket] = compareBucket(store, entries, bucketStarts[bucket], bucketStarts[bucket + 1],
+                            emailKeys);
+                }
+            }));
+        } finally {
+            pool.shutdown();
+        }
+        long candidatePairs = 0;
+        long duplicatePairs = 0;
+        int skippedBlocks = 0;
+        for (BucketResult result : results) {
+            candidatePairs += result.candidatePairs;
+            duplicatePairs += result.size;
+            skippedBlocks += result.skippedBlocks;
+        }
+        List<MergeProposal> proposals = propose(store, results);
+        long detectMillis = (System.nanoTime() - start) / 1_000_000;
+        return new DedupReport(proposals, dataVersion, rows, candidatePairs, duplicatePairs, skippedBlocks, threads,
+                loadMillis, detectMillis);
+    }
+
+    /**
+     * Aplica las propuestas en una sola transacción: actualiza cada contacto superviviente y borra sus
+     * duplicados. Si los contactos han cambiado desde la detección no se aplica nada.
+     *
+     * @return número de contactos borrados
+     */
+    public int apply(DedupReport report) {
+        long start = Metrics.start();
+        try {
+            if (dao.getDataVersion() != report.getDataVersion()) {
+                throw new IllegalStateException("Contacts changed since duplicates were detected");
+            }
+            List<Contact> survivors = new ArrayList<>(report.getProposals().size());
+            int[] deleteIds = new int[report.getDuplicateCount()];
+            int next = 0;
+            for (MergeProposal proposal : report.getProposals()) {
+                survivors.add(proposal.getMerged());
+                for (int id : proposal.getDuplicateIds()) {
+                    deleteIds[next++] = id;
+                }
+            }
+            Contact[] results = dao.applyWrites(survivors, deleteIds);
+            int deleted = 0;
+            for (int i = survivors.size(); i < results.length; i++) {
+                if (results[i] != null) {
+                    deleted++;
+                }
+            }
+            return deleted;
+        } finally {
+            Metrics.record("dedup.apply", start);
+        }
+    }
+
+    // Reparte las claves no vacías por cubos (bits altos de la clave); bucketStarts recibe el inicio de cada cubo
+    private static long[] partition(long[] emailKeys, long[] phoneKeys, int[] bucketStarts) {
+        int[] counts = new int[bucketStarts.length];
+        for (long[] keys : new long[][]{emailKeys, phoneKeys}) {
+            for (long key : keys) {
+                if (key != 0) {
+                    counts[bucket(key)]++;
+                }
+            }
+        }
+        for (int bucket = 0; bucket < counts.length - 1; bucket++) {
+            bucketStarts[bucket + 1] = bucketStarts[bucket] + counts[bucket];
+        }
+        long[] entries = new long[bucketStarts[counts.length - 1]];
+        int[] next = Arrays.copyOf(bucketStarts, counts.length - 1);
+        for (long[] keys : new long[][]{emailKeys, phoneKeys}) {
+            for (int row = 0; row < keys.length; row++) {
+                long key = keys[row];
+                if (key != 0) {
+                    entries[next[bucket(key)]++] = (key & ~ROW_MASK) | row;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private BucketResult compareBucket(ContactStore store, long[] entries, int from, int to, long[] emailKeys) {
+        BucketResult result = new BucketResult();
+        Arrays.sort(entries, from, to);
+        int blockStart = from;
+        while (blockStart < to) {
+            long blockKey = entries[blockStart] & ~ROW_MASK;
+            int blockEnd = blockStart + 1;
+            while (blockEnd < to && (entries[blockEnd] & ~ROW_MASK) == blockKey) {
+                blockEnd++;
+            }
+            int blockSize = blockEnd - blockStart;
+            if (blockSize > maxBlockSize) {
+                result.skippedBlocks++;
+            } else if (blockSize > 1) {
+                for (int i = blockStart; i < blockEnd; i++) {
+                    int a = (int) (entries[i] & ROW_MASK);
+                    boolean emailBlock = (emailKeys[a] & ~ROW_MASK) == blockKey;
+                    for (int j = i + 1; j < blockEnd; j++) {
+                        int b = (int) (entries[j] & ROW_MASK);
+                        // Una pareja con el mismo correo ya se comparó en el bloque del correo
+                        if (!emailBlock && emailKeys[a] != 0 && emailKeys[a] == emailKeys[b]) {
+                            continue;
+                        }
+                        result.candidatePairs++;
+                        double confidence = confidence(store, a, b);
+                        if (confidence >= threshold) {
+                            result.add(a, b, confidence);
+                        }
+                    }
+                }
+            }
+            blockStart = blockEnd;
+        }
+        return result;
+    }
+
+    // 0 si la pareja solo compartía el hash (colisión) o si no hay coincidencia suficiente
+    private static double confidence(ContactStore store, int a, int b) {
+        String emailA = ContactNormalizer.email(store.getEmail(a));
+        boolean sameEmail = emailA != null && emailA.equals(ContactNormalizer.email(store.getEmail(b)));
+        String phoneA = ContactNormalizer.phone(store.getPhone(a));
+        boolean samePhone = phoneA != null && phoneA.equals(ContactNormalizer.phone(store.getPhone(b)));
+        if (!sameEmail && !samePhone) {
+            return 0;
+        }
+        double similarity = nameSimilarity(ContactNormalizer.name(store.getName(a)),
+                ContactNormalizer.name(store.getName(b)));
+        return sameEmail ? EMAIL_CONFIDENCE + (1 - EMAIL_CONFIDENCE) * similarity : similarity;
+    }
+
+    /**
+     * Parecido entre dos nombres normalizados, entre 0 y 1. Las palabras se emparejan una a una,
+     * primero las más parecidas (Jaro-Winkler), y cuenta la pareja peor, para que un apellido
+     * compartido no tape un nombre distinto ("Sophie Lopez" y "Sophie Lefebvre"); cada palabra sin
+     * pareja resta una penalización.
+     */
+    static double nameSimilarity(String a, String b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+        String[] wordsA = a.split(" ");
+        String[] wordsB = b.split(" ");
+        double[][] similarities = new double[wordsA.length][wordsB.length];
+        for (int i = 0; i < wordsA.length; i++) {
+            for (int j = 0; j < wordsB.length; j++) {
+                similarities[i][j] = jaroWinkler(wordsA[i], wordsB[j]);
+            }
+        }
+        boolean[] usedA = new boolean[wordsA.length];
+        boolean[] usedB = new boolean[wordsB.length];
+        double worst = 1;
+        for (int paired = 0; paired < Math.min(wordsA.length, wordsB.length); paired++) {
+            int bestI = -1;
+            int bestJ = -1;
+            for (int i = 0; i < wordsA.length; i++) {
+                for (int j = 0; !usedA[i] && j < wordsB.length; j++) {
+                    if (!usedB[j] && (bestI < 0 || similarities[i][j] > similarities[bestI][bestJ])) {
+                        bestI = i;
+                        bestJ = j;
+                    }
+                }
+            }
+            usedA[bestI] = true;
+            usedB[bestJ] = true;
+            worst = Math.min(worst, similarities[bestI][bestJ]);
+        }
+        return Math.max(0, worst - EXTRA_WORD_PENALTY * Math.abs(wordsA.length - wordsB.length));
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int end = Math.min(b.length(), i + window + 1);
+            for (int j = Math.max(0, i - window); j < end; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double jaro = ((double) matches / a.length() + (double) matches / b.length()
+                + (matches - transpositions / 2.0) / matches) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    // Une las parejas en grupos (union-find) y construye una propuesta por grupo, ordenadas por ID
+    private static List<MergeProposal> propose(ContactStore store, BucketResult[] results) {
+        int[] parent = new int[store.size()];
+        Arrays.setAll(parent, row -> row);
+        for (BucketResult result : results) {
+            for (int i = 0; i < result.size; i++) {
+                int rootA = find(parent, (int) (result.pairs[i] >>> 32));
+                int rootB = find(parent, (int) result.pairs[i]);
+                if (rootA != rootB) {
+                    parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+                }
+            }
+        }
+        // Miembros de cada grupo, indexados por la fila raíz, y la confianza de su pareja más dudosa
+        List<List<Integer>> members = new ArrayList<>();
+        int[] groupOf = new int[store.size()];
+        Arrays.fill(groupOf, -1);
+        List<Double> confidences = new ArrayList<>();
+        BitSet added = new BitSet(store.size());
+        for (BucketResult result : results) {
+            for (int i = 0; i < result.size; i++) {
+                int a = (int) (result.pairs[i] >>> 32);
+                int root = find(parent, a);
+                if (groupOf[root] < 0) {
+                    groupOf[root] = members.size();
+                    members.add(new ArrayList<>());
+                    confidences.add(1.0);
+                }
+                int group = groupOf[root];
+                confidences.set(group, Math.min(confidences.get(group), result.confidences[i]));
+                for (int row : new int[]{a, (int) result.pairs[i]}) {
+                    if (!added.get(row)) {
+                        added.set(row);
+                        members.get(group).add(row);
+                    }
+                }
+            }
+        }
+        List<MergeProposal> proposals = new ArrayList<>(members.size());
+        for (int group = 0; group < members.size(); group++) {
+            proposals.add(merge(store, members.get(group), confidences.get(group)));
+        }
+        proposals.sort(Comparator.comparingInt(proposal -> proposal.getMerged().getId()));
+        return proposals;
+    }
+
+    private static int find(int[] parent, int row) {
+        while (parent[row] != row) {
+            parent[row] = parent[parent[row]];
+            row = parent[row];
+        }
+        return row;
+    }
+
+    /**
+     * Se conserva el favorito con más campos rellenos (a igualdad, el de ID menor) y se completan
+     * el teléfono y el tipo que le falten con los de los demás, por orden de ID.
+     */
+    private static MergeProposal merge(ContactStore store, List<Integer> rows, double confidence) {
+        List<Contact> contacts = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            contacts.add(store.getContact(row));
+        }
+        contacts.sort(Comparator.comparingInt(Contact::getId));
+        Contact survivor = contacts.get(0);
+        for (Contact contact : contacts) {
+            if (rank(contact) > rank(survivor)) {
+                survivor = contact;
+            }
+        }
+        String phone = survivor.getPhone();
+        String contactType = survivor.getContactType();
+        boolean favorite = false;
+        int[] duplicateIds = new int[contacts.size() - 1];
+        int next = 0;
+        for (Contact contact : contacts) {
+            favorite |= contact.isFavorite();
+            if (contact == survivor) {
+                continue;
+            }
+            duplicateIds[next++] = contact.getId();
+            if (isBlank(phone)) {
+                phone = contact.getPhone();
+            }
+            if (isBlank(contactType)) {
+                contactType = contact.getContactType();
+            }
+        }
+        Contact merged = new Contact(survivor.getId(), survivor.getName(), survivor.getEmail(), phone, contactType, favorite);
+        return new MergeProposal(merged, duplicateIds, confidence);
+    }
+
+    private static int rank(Contact contact) {
+        int filled = (isBlank(contact.getName()) ? 0 : 1) + (isBlank(contact.getEmail()) ? 0 : 1)
+                + (isBlank(contact.getPhone()) ? 0 : 1) + (isBlank(contact.getContactType()) ? 0 : 1);
+        return (contact.isFavorite() ? 8 : 0) + filled;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static int bucket(long key) {
+        return (int) (key >>> (Long.SIZE - BUCKET_BITS));
+    }
+
+    // FNV-1a con una mezcla final para repartir los bits altos; 0 queda reservado para "sin valor"
+    private static long key(long seed, String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = seed ^ 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash ^= hash >>> 31;
+        return (hash & ~ROW_MASK) == 0 ? 1L << ROW_BITS : hash;
+    }
+
+    /**
+     * Parejas duplicadas encontradas en un cubo, como filas empaquetadas en un long, con su confianza.
+     */
+    private static final class BucketResult {
+        long[] pairs = new long[16];
+        double[] confidences = new double[16];
+        int size;
+        long candidatePairs;
+        int skippedBlocks;
+
+        void add(int a, int b, double confidence) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+                confidences = Arrays.copyOf(confidences, size * 2);
+            }
+            pairs[size] = ((long) a << 32) | b;
+            confidences[size++] = confidence;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * Ejecuta {@code body} sobre {@code [from, to)} partiendo el rango por la mitad hasta que cada
+     * trozo tiene como mucho {@code grain} elementos.
+     */
+    private static final class RangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeBody body;
+
+        RangeAction(int from, int to, int grain, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, grain, body), new RangeAction(middle, to, grain, body));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.juliandev.dedup;
+
+import com.juliandev.model.Contact;
+
+import java.util.Arrays;
+
+/**
+ * Propuesta de fusión de un grupo de contactos duplicados: el contacto que se conserva, ya con
+ * los campos que le faltaban completados desde los demás, y los IDs que se borran.
+ */
+public class MergeProposal {
+    private final Contact merged;
+    private final int[] duplicateIds;
+    private final double confidence;
+
+    public MergeProposal(Contact merged, int[] duplicateIds, double confidence) {
+        this.merged = merged;
+        this.duplicateIds = duplicateIds;
+        this.confidence = confidence;
+    }
+
+    /**
+     * Contacto resultante; conserva el ID del contacto elegido como superviviente.
+     */
+    public Contact getMerged() { return merged; }
+    public int[] getDuplicateIds() { return duplicateIds; }
+    /**
+     * Confianza de la pareja menos clara del grupo, entre 0 y 1.
+     */
+    public double getConfidence() { return confidence; }
+
+    @Override
+    public String toString() {
+        return "MergeProposal{survivorId=" + merged.getId() + ", duplicateIds=" + Arrays.toString(duplicateIds)
+                + ", confidence=" + String.format("%.2f", confidence) + "}";
+    }
+}
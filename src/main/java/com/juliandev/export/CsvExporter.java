@@ -0,0 +1,145 @@
+package com.juliandev.export;
+
+import com.juliandev.model.ContactDAO;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exporta contactos a CSV con la cabecera ID,Name,Email,Phone,Type,Favorite.
+ *
+ * <p>Las filas se leen con un cursor del DAO y se escriben en UTF-8 sin materializar la lista
+ * de contactos. El modo paralelo reparte el rango de IDs entre varios hilos, cada uno con su
+ * propio archivo parcial, y después los concatena en orden.</p>
+ */
+public class CsvExporter {
+    private final ContactDAO dao;
+
+    public CsvExporter(ContactDAO dao) {
+        this.dao = dao;
+    }
+
+    public void export(File csvFile) throws IOException {
+        export(csvFile, null);
+    }
+
+    /**
+     * Escribe el CSV y, si {@code jsonFile} no es {@code null}, también el JSON,
+     * ambos en el mismo recorrido de la tabla.
+     */
+    public void export(File csvFile, File jsonFile) throws IOException {
+        try (CsvRowWriter csv = new CsvRowWriter(open(csvFile.toPath()))) {
+            csv.writeHeader();
+            if (jsonFile == null) {
+                dao.scanContactRows(Integer.MIN_VALUE, Integer.MAX_VALUE, csv);
+                return;
+            }
+            try (JsonRowWriter json = new JsonRowWriter(jsonFile)) {
+                dao.scanContactRows(Integer.MIN_VALUE, Integer.MAX_VALUE, (id, name, email, phone, type, favorite) -> {
+                    csv.visit(id, name, email, phone, type, favorite);
+                    json.visit(id, name, email, phone, type, favorite);
+                });
+                json.finish();
+            }
+        }
+    }
+
+    /**
+     * Exporta el CSV con hasta {@code threads} hilos, limitados al tamaño del pool de conexiones.
+     */
+    public void exportParallel(File csvFile, int threads) throws IOException {
+        int[] bounds = dao.getIdBounds();
+        int workers = Math.min(threads, dao.getStorageProfile().getPoolSize());
+        if (bounds == null || workers <= 1) {
+            export(csvFile);
+            return;
+        }
+        long span = ((long) bounds[1] - bounds[0] + workers) / workers;
+        Path target = csvFile.toPath();
+        List<Path> parts = new ArrayList<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "csv-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                int from = (int) (bounds[0] + span * i);
+                int to = (int) Math.min((long) bounds[1] + 1, bounds[0] + span * (i + 1));
+                // El primer tramo va directamente al destino con la cabecera
+                Path out = i == 0 ? target : target.resolveSibling(target.getFileName() + ".part" + i);
+                if (i > 0) {
+                    parts.add(out);
+                }
+                boolean header = i == 0;
+                tasks.add(executor.submit(() -> {
+                    try (CsvRowWriter csv = new CsvRowWriter(open(out))) {
+                        if (header) {
+                            csv.writeHeader();
+                        }
+                        dao.scanContactRows(from, to, csv);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                await(task);
+            }
+            concatenate(target, parts);
+        } finally {
+            executor.shutdownNow();
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    private static void concatenate(Path target, List<Path> parts) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void await(Future<?> task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("CSV export interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Error exporting contacts to CSV: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
@@ -0,0 +1,135 @@
+package com.juliandev.export;
+
+import com.juliandev.model.ContactRowVisitor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe filas CSV en un {@link FileChannel} a través de un búfer reutilizado.
+ * Los campos ya llegan en UTF-8, así que se copian byte a byte escapándolos en la misma pasada:
+ * no se crean cadenas ni objetos por fila.
+ */
+final class CsvRowWriter implements ContactRowVisitor, Closeable {
+    static final byte[] HEADER = "ID,Name,Email,Phone,Type,Favorite\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+    private int position;
+
+    CsvRowWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    void writeHeader() throws IOException {
+        reserve(HEADER.length);
+        System.arraycopy(HEADER, 0, buffer, position, HEADER.length);
+        position += HEADER.length;
+    }
+
+    @Override
+    public void visit(int id, byte[] name, byte[] email, byte[] phone, byte[] contactType, boolean favorite)
+            throws IOException {
+        // Peor caso: todas las comillas duplicadas más las comillas de apertura y cierre
+        reserve(32 + 2 * (length(name) + length(email) + length(phone) + length(contactType)));
+        writeInt(id);
+        buffer[position++] = ',';
+        writeField(name);
+        buffer[position++] = ',';
+        writeField(email);
+        buffer[position++] = ',';
+        writeField(phone);
+        buffer[position++] = ',';
+        writeField(contactType);
+        buffer[position++] = ',';
+        byte[] flag = favorite ? TRUE : FALSE;
+        System.arraycopy(flag, 0, buffer, position, flag.length);
+        position += flag.length;
+        buffer[position++] = '\n';
+    }
+
+    private void writeInt(int value) {
+        long v = value;
+        if (v < 0) {
+            buffer[position++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        position += digits;
+    }
+
+    /**
+     * Copia el campo y, al encontrar el primer carácter especial, desplaza lo ya copiado
+     * para abrir las comillas; el caso habitual (sin caracteres especiales) es una sola copia.
+     */
+    private void writeField(byte[] value) {
+        if (value == null) {
+            return;
+        }
+        int start = position;
+        int out = start;
+        boolean quoted = false;
+        for (byte b : value) {
+            if (!quoted && (b == ',' || b == '"' || b == '\n' || b == '\r')) {
+                System.arraycopy(buffer, start, buffer, start + 1, out - start);
+                buffer[start] = '"';
+                out++;
+                quoted = true;
+            }
+            if (b == '"') {
+                buffer[out++] = '"';
+            }
+            buffer[out++] = b;
+        }
+        if (quoted) {
+            buffer[out++] = '"';
+        }
+        position = out;
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (position + bytes <= buffer.length) {
+            return;
+        }
+        flush();
+        if (bytes > buffer.length) {
+            buffer = new byte[Integer.highestOneBit(bytes) << 1];
+            wrapper = ByteBuffer.wrap(buffer);
+        }
+    }
+
+    void flush() throws IOException {
+        wrapper.clear().limit(position);
+        while (wrapper.hasRemaining()) {
+            channel.write(wrapper);
+        }
+        position = 0;
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.juliandev.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.juliandev.model.ContactRowVisitor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Escribe las filas como el arreglo JSON de {@code ContactDAO.serializeToJson}, pasando los bytes
+ * UTF-8 de cada campo directamente al generador.
+ */
+final class JsonRowWriter implements ContactRowVisitor, Closeable {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString PHONE = new SerializedString("phone");
+    private static final SerializableString CONTACT_TYPE = new SerializedString("contactType");
+    private static final SerializableString FAVORITE = new SerializedString("favorite");
+
+    private final JsonGenerator generator;
+
+    JsonRowWriter(File file) throws IOException {
+        generator = new JsonFactory().createGenerator(file, JsonEncoding.UTF8);
+        generator.useDefaultPrettyPrinter();
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void visit(int id, byte[] name, byte[] email, byte[] phone, byte[] contactType, boolean favorite)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        writeField(NAME, name);
+        writeField(EMAIL, email);
+        writeField(PHONE, phone);
+        writeField(CONTACT_TYPE, contactType);
+        generator.writeFieldName(FAVORITE);
+        generator.writeBoolean(favorite);
+        generator.writeEndObject();
+    }
+
+    private void writeField(SerializableString field, byte[] value) throws IOException {
+        generator.writeFieldName(field);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeUTF8String(value, 0, value.length);
+        }
+    }
+
+    void finish() throws IOException {
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
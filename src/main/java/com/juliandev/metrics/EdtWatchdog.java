@@ -0,0 +1,136 @@
+package com.juliandev.metrics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide cuánto tarda el EDT en despachar cada evento y detecta bloqueos.
+ *
+ * <p>Se instala como cola de eventos del sistema: cada despacho se registra en el histograma
+ * {@code edt.dispatch} y los que superan {@code contacts.metrics.stall.ms} milisegundos (200 por
+ * defecto) cuentan como bloqueo. Un hilo vigilante imprime la pila del EDT una vez por bloqueo
+ * mientras sigue en curso, para saber qué lo está reteniendo.</p>
+ */
+public class EdtWatchdog extends EventQueue implements EdtWatchdogMXBean {
+    private final long stallThresholdNanos;
+    private final LatencyHistogram dispatchTimes = Metrics.histogram("edt.dispatch");
+    private final LongAdder stallCount = new LongAdder();
+    private final LongAdder stallNanos = new LongAdder();
+    private final AtomicLong longestStallNanos = new AtomicLong();
+    // Inicio del despacho en curso (0 si el EDT está libre) y número de despacho, para avisar una sola vez
+    private volatile long dispatchStart;
+    private volatile long dispatchSequence;
+    private volatile Thread edt;
+    // Solo los usa el EDT
+    private int depth;
+    private boolean nested;
+
+    private EdtWatchdog(long stallThresholdMillis) {
+        this.stallThresholdNanos = stallThresholdMillis * 1_000_000;
+    }
+
+    /**
+     * Instala el vigilante si las métricas están activadas; devuelve {@code null} si no.
+     */
+    public static EdtWatchdog install() {
+        if (!Metrics.isEnabled()) {
+            return null;
+        }
+        EdtWatchdog watchdog = new EdtWatchdog(Long.getLong("contacts.metrics.stall.ms", 200));
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        Metrics.register("type=EdtWatchdog", watchdog);
+        Thread monitor = new Thread(watchdog::monitor, "contact-edt-watchdog");
+        monitor.setDaemon(true);
+        monitor.start();
+        return watchdog;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        edt = Thread.currentThread();
+        long start = System.nanoTime();
+        // Un diálogo modal despacha eventos anidados: el evento exterior no cuenta como bloqueo
+        if (depth > 0) {
+            nested = true;
+        }
+        depth++;
+        dispatchSequence++;
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            depth--;
+            long end = System.nanoTime();
+            dispatchStart = depth > 0 ? end : 0;
+            if (depth > 0 || !nested) {
+                record(end - start);
+            }
+            if (depth == 0) {
+                nested = false;
+            }
+        }
+    }
+
+    private void record(long elapsed) {
+        dispatchTimes.record(elapsed);
+        if (elapsed >= stallThresholdNanos) {
+            stallCount.increment();
+            stallNanos.add(elapsed);
+            longestStallNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private void monitor() {
+        long reported = -1;
+        long interval = Math.max(10, stallThresholdNanos / 2_000_000);
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = dispatchStart;
+            long sequence = dispatchSequence;
+            Thread thread = edt;
+            if (start != 0 && sequence != reported && thread != null
+                    && System.nanoTime() - start >= stallThresholdNanos) {
+                reported = sequence;
+                StringBuilder trace = new StringBuilder("EDT blocked for more than "
+                        + stallThresholdNanos / 1_000_000 + " ms:");
+                for (StackTraceElement element : thread.getStackTrace()) {
+                    trace.append(System.lineSeparator()).append("\tat ").append(element);
+                }
+                System.err.println(trace);
+            }
+        }
+    }
+
+    @Override
+    public long getStallThresholdMillis() {
+        return stallThresholdNanos / 1_000_000;
+    }
+
+    @Override
+    public long getStallCount() {
+        return stallCount.sum();
+    }
+
+    @Override
+    public long getTotalStallMillis() {
+        return stallNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getLongestStallMillis() {
+        return longestStallNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "EdtWatchdog{threshold=" + getStallThresholdMillis() + "ms, stalls=" + getStallCount()
+                + ", totalStall=" + getTotalStallMillis() + "ms, longestStall=" + getLongestStallMillis() + "ms}";
+    }
+}
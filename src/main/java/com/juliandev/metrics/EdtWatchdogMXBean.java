@@ -0,0 +1,14 @@
+package com.juliandev.metrics;
+
+/**
+ * Vista JMX de los bloqueos del EDT detectados por {@link EdtWatchdog}.
+ */
+public interface EdtWatchdogMXBean {
+    long getStallThresholdMillis();
+
+    long getStallCount();
+
+    long getTotalStallMillis();
+
+    long getLongestStallMillis();
+}
@@ -0,0 +1,24 @@
+package com.juliandev.metrics;
+
+/**
+ * Vista JMX de un {@link LatencyHistogram}; las latencias se expresan en microsegundos.
+ */
+public interface LatencyHistogramMXBean {
+    String getName();
+
+    long getCount();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,90 @@
+package com.juliandev.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registro global de latencias de la aplicación.
+ *
+ * <p>Se activa con {@code -Dcontacts.metrics=true}. Desactivado, {@link #start()} y
+ * {@link #record(String, long)} vuelven sin hacer nada y, al ser la bandera una constante,
+ * el JIT elimina las llamadas. Activado, cada nombre tiene su {@link LatencyHistogram},
+ * publicado por JMX como {@code com.juliandev.metrics:type=Latency,name=<nombre>}.</p>
+ *
+ * <p>Convención de nombres: {@code dao.<método>}, {@code sql <sentencia>}, {@code task.<carril>.wait|run}
+ * y {@code edt.<operación>}.</p>
+ */
+public final class Metrics {
+    public static final String JMX_DOMAIN = "com.juliandev.metrics";
+
+    private static final boolean ENABLED = Boolean.getBoolean("contacts.metrics");
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Marca de tiempo para pasar después a {@link #record(String, long)}; 0 si las métricas están desactivadas.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Registra en el histograma {@code name} el tiempo transcurrido desde {@code startNanos}.
+     */
+    public static void record(String name, long startNanos) {
+        if (ENABLED) {
+            histogram(name).recordSince(startNanos);
+        }
+    }
+
+    /**
+     * Histograma con el nombre dado; se crea y se publica por JMX la primera vez.
+     */
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = HISTOGRAMS.get(name);
+        if (histogram != null) {
+            return histogram;
+        }
+        return HISTOGRAMS.computeIfAbsent(name, key -> {
+            LatencyHistogram created = new LatencyHistogram(key);
+            register("type=Latency,name=" + ObjectName.quote(key), created);
+            return created;
+        });
+    }
+
+    /**
+     * Histogramas registrados hasta ahora, ordenados por nombre.
+     */
+    public static List<LatencyHistogram> histograms() {
+        List<LatencyHistogram> list = new ArrayList<>(HISTOGRAMS.values());
+        list.sort(Comparator.comparing(LatencyHistogram::getName));
+        return list;
+    }
+
+    static void register(String properties, Object mbean) {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean " + properties + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.juliandev.metrics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Vuelca periódicamente todas las métricas a un archivo de texto local
+ * ({@code contacts.metrics.log}, {@code contacts-metrics.log} por defecto) cada
+ * {@code contacts.metrics.log.seconds} segundos (60 por defecto), y una última vez al cerrarse.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final String path;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "contact-metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Otras fuentes (carriles, caché, vigilante del EDT) que se añaden al volcado tal cual
+    private final List<Supplier<?>> sources = new ArrayList<>();
+
+    private MetricsReporter(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Arranca el volcado si las métricas están activadas; devuelve {@code null} si no.
+     */
+    public static MetricsReporter start() {
+        if (!Metrics.isEnabled()) {
+            return null;
+        }
+        MetricsReporter reporter = new MetricsReporter(System.getProperty("contacts.metrics.log", "contacts-metrics.log"));
+        long seconds = Long.getLong("contacts.metrics.log.seconds", 60);
+        reporter.timer.scheduleAtFixedRate(reporter::report, seconds, seconds, TimeUnit.SECONDS);
+        return reporter;
+    }
+
+    public synchronized void addSource(Supplier<?> source) {
+        sources.add(source);
+    }
+
+    public synchronized void report() {
+        try (PrintWriter out = new PrintWriter(new FileWriter(path, true))) {
+            out.println("# " + LocalDateTime.now());
+            for (LatencyHistogram histogram : Metrics.histograms()) {
+                if (histogram.getCount() > 0) {
+                    out.println(histogram);
+                }
+            }
+            for (Supplier<?> source : sources) {
+                out.println(source.get());
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing metrics to " + path + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        report();
+    }
+}
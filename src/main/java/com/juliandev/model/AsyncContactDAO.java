@@ -0,0 +1,138 @@
+package com.juliandev.model;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Versión asíncrona de {@link ContactDAO}: cada operación se ejecuta en un executor dedicado
+ * a la base de datos y devuelve un {@link CompletableFuture}, de modo que las operaciones se
+ * pueden encadenar sin bloquear al llamante. Los errores llegan como la misma
+ * {@link RuntimeException} que lanzaría el DAO, envuelta en la {@code CompletionException} del futuro.
+ *
+ * <p>Las continuaciones no asíncronas ({@code thenApply}, {@code whenComplete}...) se ejecutan
+ * en los hilos de la base de datos; el código de interfaz debe pasar al EDT por su cuenta.</p>
+ */
+public class AsyncContactDAO implements AutoCloseable {
+    private final ContactDAO dao;
+    private final Executor executor;
+    // Solo si el executor es propio: se apaga en close()
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Crea un executor con tantos hilos de plataforma como conexiones tiene el pool del DAO. Las
+     * llamadas a SQLite son nativas y fijan el hilo portador de un hilo virtual mientras duran, así
+     * que un executor de hilos virtuales sin límite podría ocupar todos los portadores.
+     */
+    public AsyncContactDAO(ContactDAO dao) {
+        this.dao = dao;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.ownedExecutor = Executors.newFixedThreadPool(dao.getStorageProfile().getPoolSize(), r -> {
+            Thread thread = new Thread(r, "contact-db-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = ownedExecutor;
+    }
+
+    /**
+     * Usa un executor externo, que sigue perteneciendo al llamante. Puede ser de hilos virtuales
+     * si limita cuántas operaciones corren a la vez, como los carriles de {@code TaskScheduler}:
+     * solo quedan fijados tantos portadores como operaciones admite el límite.
+     */
+    public AsyncContactDAO(ContactDAO dao, Executor executor) {
+        this.dao = dao;
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    public ContactDAO getDao() {
+        return dao;
+    }
+
+    public CompletableFuture<Contact> saveContact(Contact contact) {
+        return supply(() -> dao.saveContact(contact));
+    }
+
+    /**
+     * Comprobación e inserción en un solo viaje a la base de datos.
+     */
+    public CompletableFuture<UpsertResult> insertIfEmailAbsent(Contact contact) {
+        return supply(() -> dao.insertIfEmailAbsent(contact));
+    }
+
+    public CompletableFuture<UpsertResult> updateIfEmailAvailable(Contact contact) {
+        return supply(() -> dao.updateIfEmailAvailable(contact));
+    }
+
+    public CompletableFuture<UpsertResult> upsertByEmail(Contact contact) {
+        return supply(() -> dao.upsertByEmail(contact));
+    }
+
+    public CompletableFuture<Contact> updateContact(Contact contact) {
+        return supply(() -> dao.updateContact(contact));
+    }
+
+    public CompletableFuture<Contact> deleteContact(int id) {
+        return supply(() -> dao.deleteContact(id));
+    }
+
+    public CompletableFuture<Boolean> emailExists(String email, int excludeId) {
+        return supply(() -> dao.emailExists(email, excludeId));
+    }
+
+    public CompletableFuture<List<Contact>> getAllContacts() {
+        return supply(dao::getAllContacts);
+    }
+
+    public CompletableFuture<int[]> getAllContactIds() {
+        return supply(dao::getAllContactIds);
+    }
+
+    public CompletableFuture<List<Contact>> getContactsByIds(int[] ids) {
+        return supply(() -> dao.getContactsByIds(ids));
+    }
+
+    public CompletableFuture<List<Contact>> getContactsAfter(int afterId, int limit) {
+        return supply(() -> dao.getContactsAfter(afterId, limit));
+    }
+
+    public CompletableFuture<List<Contact>> searchContacts(String query) {
+        return supply(() -> dao.searchContacts(query));
+    }
+
+    public CompletableFuture<ImportResult> deserializeFromJson(File file) {
+        return supply(() -> dao.deserializeFromJson(file));
+    }
+
+    public CompletableFuture<Void> serializeToJson(File file) {
+        return CompletableFuture.runAsync(() -> dao.serializeToJson(file), executor);
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+
+    /**
+     * Deja de aceptar operaciones y espera a que terminen las pendientes, si el executor es propio.
+     * No cierra el DAO.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor == null) {
+            return;
+        }
+        ownedExecutor.shutdown();
+        try {
+            ownedExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.juliandev.model;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Permite cancelar desde otro hilo una consulta del DAO que está en curso.
+ * Al cancelar se llama a {@link Statement#cancel()} sobre la sentencia registrada.
+ */
+public class CancellableQuery {
+    private Statement statement;
+    private boolean cancelled;
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                System.err.println("Error cancelling query: " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized void register(Statement statement) throws SQLException {
+        this.statement = statement;
+        if (cancelled) {
+            statement.cancel();
+        }
+    }
+
+    synchronized void unregister() {
+        this.statement = null;
+    }
+}
@@ -0,0 +1,295 @@
+package com.juliandev.model;
+
+import com.juliandev.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool acotado de conexiones SQLite de larga vida.
+ * Las conexiones entregadas son proxies: llamar a {@code close()} las devuelve al pool
+ * en lugar de cerrarlas, de modo que el DAO puede seguir usando try-with-resources.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final long VALIDATION_INTERVAL_MS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long ACQUIRE_TIMEOUT_MS = 10_000;
+
+    private final String url;
+    private final Properties properties;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final ArrayDeque<PooledEntry> idle = new ArrayDeque<>();
+    private final List<PooledEntry> all = new ArrayList<>();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxSize) {
+        this(url, new Properties(), maxSize);
+    }
+
+    /**
+     * @param properties propiedades pasadas al driver al abrir cada conexión (por ejemplo, pragmas)
+     */
+    public ConnectionPool(String url, Properties properties, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize);
+        }
+        this.url = url;
+        this.properties = properties;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            PooledEntry entry = takeHealthyIdle();
+            if (entry == null) {
+                entry = new PooledEntry(DriverManager.getConnection(url, properties));
+                synchronized (this) {
+                    all.add(entry);
+                }
+            }
+            return entry.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    public synchronized int getOpenConnections() { return all.size(); }
+
+    public synchronized int getIdleConnections() { return idle.size(); }
+
+    /**
+     * Cierra todas las conexiones. Las conexiones prestadas se cierran cuando se devuelven.
+     */
+    @Override
+    public void close() {
+        List<PooledEntry> toClose;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            all.removeAll(toClose);
+        }
+        for (PooledEntry entry : toClose) {
+            entry.closePhysical();
+        }
+    }
+
+    private PooledEntry takeHealthyIdle() {
+        while (true) {
+            PooledEntry entry;
+            synchronized (this) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isHealthy()) {
+                return entry;
+            }
+            discard(entry);
+        }
+    }
+
+    private void release(PooledEntry entry) {
+        boolean reusable = entry.resetForReuse();
+        boolean closeNow;
+        synchronized (this) {
+            closeNow = closed || !reusable;
+            if (closeNow) {
+                all.remove(entry);
+            } else {
+                idle.addFirst(entry);
+            }
+        }
+        if (closeNow) {
+            entry.closePhysical();
+        }
+        permits.release();
+    }
+
+    private void discard(PooledEntry entry) {
+        synchronized (this) {
+            all.remove(entry);
+        }
+        entry.closePhysical();
+    }
+
+    private final class PooledEntry {
+        private final Connection physical;
+        private long lastUsed = System.currentTimeMillis();
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            Lease handler = new Lease(this);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        }
+
+        boolean isHealthy() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed < VALIDATION_INTERVAL_MS) {
+                    return true;
+                }
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        boolean resetForReuse() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                lastUsed = System.currentTimeMillis();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        Lease(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (Metrics.isEnabled() && result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return TimedStatement.wrap(statement, sql);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Con las métricas activadas, registra el tiempo de cada ejecución en el histograma
+     * {@code sql <sentencia>}. En las consultas mide hasta tener la primera fila.
+     */
+    private static final class TimedStatement implements InvocationHandler {
+        private final Statement target;
+        // Nombre del histograma de una sentencia preparada; null si el SQL llega en cada ejecución
+        private final String name;
+
+        private TimedStatement(Statement target, String sql) {
+            this.target = target;
+            this.name = sql == null ? null : "sql " + normalize(sql);
+        }
+
+        static Statement wrap(Statement statement, String sql) {
+            Class<?>[] interfaces = statement instanceof PreparedStatement
+                    ? new Class<?>[]{PreparedStatement.class}
+                    : new Class<?>[]{Statement.class};
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), interfaces,
+                    new TimedStatement(statement, sql));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean timed = method.getName().startsWith("execute");
+            long start = timed ? Metrics.start() : 0;
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (timed) {
+                    Metrics.record(args != null && args.length > 0 && args[0] instanceof String sql
+                            ? "sql " + normalize(sql) : name == null ? "sql ?" : name, start);
+                }
+            }
+        }
+
+        // Una línea por sentencia y las listas IN de longitud variable reducidas a una sola forma
+        private static String normalize(String sql) {
+            return sql.replaceAll("\\s+", " ").replaceAll("\\?(\\s*,\\s*\\?)+", "?, ...").trim();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.juliandev.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Caché de lectura delante de {@link ContactDAO}: contactos por ID y resultados de búsqueda
+ * por texto normalizado. Las lecturas que fallan en la caché consultan el DAO y guardan el resultado.
+ *
+ * <p>Ambas partes se limitan por peso estimado en bytes ({@code contacts.cache.contacts.bytes},
+ * 16 MiB por defecto, y {@code contacts.cache.searches.bytes}, 4 MiB por defecto) y expulsan
+ * primero lo usado hace más tiempo. Se mantiene al día escuchando las modificaciones del DAO:
+ * un cambio sustituye o quita solo ese contacto y descarta solo las búsquedas que lo contenían
+ * o que podrían contenerlo ahora.</p>
+ *
+ * <p>Los contactos devueltos se comparten entre llamadas y no deben modificarse.</p>
+ */
+public class ContactCache implements ContactChangeListener, AutoCloseable {
+    // Mínimo de caracteres a partir del cual el DAO busca con FTS en vez de LIKE
+    private static final int MIN_FTS_QUERY_LENGTH = 3;
+    // Los fallos se leen en tandas para no superar el límite de parámetros de SQLite
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final ContactDAO dao;
+    private final long maxContactBytes;
+    private final long maxSearchBytes;
+    private final Map<Integer, Contact> contacts = new LinkedHashMap<>(1024, 0.75f, true);
+    private final Map<String, int[]> searches = new LinkedHashMap<>(64, 0.75f, true);
+    private long contactBytes;
+    private long searchBytes;
+    // Aumenta con cada modificación; una lectura solo se guarda si no ha cambiado mientras se hacía
+    private long version;
+    private long contactHits;
+    private long contactMisses;
+    private long searchHits;
+    private long searchMisses;
+    private long evictions;
+
+    public ContactCache(ContactDAO dao) {
+        this(dao, Long.getLong("contacts.cache.contacts.bytes", 16L << 20),
+                Long.getLong("contacts.cache.searches.bytes", 4L << 20));
+    }
+
+    public ContactCache(ContactDAO dao, long maxContactBytes, long maxSearchBytes) {
+        this.dao = dao;
+        this.maxContactBytes = maxContactBytes;
+        this.maxSearchBytes = maxSearchBytes;
+        dao.addChangeListener(this);
+    }
+
+    /**
+     * Devuelve los contactos de {@code ids} que existen, en el mismo orden; solo se consultan los que faltan.
+     */
+    public List<Contact> getContactsByIds(int[] ids) {
+        Contact[] found = new Contact[ids.length];
+        int[] missing = new int[ids.length];
+        int missingCount = 0;
+        long readVersion;
+        synchronized (this) {
+            readVersion = version;
+            for (int i = 0; i < ids.length; i++) {
+                found[i] = contacts.get(ids[i]);
+                if (found[i] == null) {
+                    missing[missingCount++] = ids[i];
+                }
+            }
+            contactHits += ids.length - missingCount;
+            contactMisses += missingCount;
+        }
+        if (missingCount > 0) {
+            Map<Integer, Contact> byId = new HashMap<>(missingCount * 2);
+            for (int from = 0; from < missingCount; from += MAX_IDS_PER_QUERY) {
+                int[] chunk = Arrays.copyOfRange(missing, from, Math.min(from + MAX_IDS_PER_QUERY, missingCount));
+                List<Contact> loaded = dao.getContactsByIds(chunk);
+                putContacts(loaded, readVersion);
+                for (Contact contact : loaded) {
+                    byId.put(contact.getId(), contact);
+                }
+            }
+            for (int i = 0; i < ids.length; i++) {
+                if (found[i] == null) {
+                    found[i] = byId.get(ids[i]);
+                }
+            }
+        }
+        List<Contact> result = new ArrayList<>(ids.length);
+        for (Contact contact : found) {
+            if (contact != null) {
+                result.add(contact);
+            }
+        }
+        return result;
+    }
+
+    public List<Contact> searchContacts(String query) {
+        List<Contact> result = new ArrayList<>();
+        searchContacts(query, new CancellableQuery(), result::add);
+        return result;
+    }
+
+    /**
+     * Como {@link ContactDAO#searchContacts(String, CancellableQuery, Consumer)}, pero una búsqueda repetida
+     * se sirve desde la caché. Una búsqueda cancelada no se guarda.
+     */
+    public void searchContacts(String query, CancellableQuery handle, Consumer<Contact> consumer) {
+        String key = normalize(query);
+        int[] ids;
+        long readVersion;
+        synchronized (this) {
+            readVersion = version;
+            ids = searches.get(key);
+            if (ids != null) {
+                searchHits++;
+            } else {
+                searchMisses++;
+            }
+        }
+        if (ids != null) {
+            for (Contact contact : getContactsByIds(ids)) {
+                if (handle.isCancelled()) {
+                    return;
+                }
+                consumer.accept(contact);
+            }
+            return;
+        }
+        List<Contact> found = new ArrayList<>();
+        dao.searchContacts(key, handle, contact -> {
+            found.add(contact);
+            consumer.accept(contact);
+        });
+        if (!handle.isCancelled()) {
+            putSearch(key, found, readVersion);
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(contactHits, contactMisses, contacts.size(), contactBytes,
+                searchHits, searchMisses, searches.size(), searchBytes, evictions);
+    }
+
+    public synchronized void clear() {
+        version++;
+        contacts.clear();
+        searches.clear();
+        contactBytes = 0;
+        searchBytes = 0;
+    }
+
+    @Override
+    public synchronized void contactSaved(Contact contact) {
+        version++;
+        replace(contact);
+        invalidateSearches(contact);
+    }
+
+    @Override
+    public synchronized void contactUpdated(Contact contact) {
+        version++;
+        replace(contact);
+        invalidateSearches(contact);
+    }
+
+    @Override
+    public synchronized void contactDeleted(Contact contact) {
+        version++;
+        Contact removed = contacts.remove(contact.getId());
+        if (removed != null) {
+            contactBytes -= weight(removed);
+        }
+        invalidateSearches(contact);
+    }
+
+    @Override
+    public void contactsReloaded() {
+        clear();
+    }
+
+    @Override
+    public void close() {
+        dao.removeChangeListener(this);
+        clear();
+    }
+
+    /**
+     * Clave de la búsqueda: sin espacios en los extremos y en minúsculas cuando el DAO no distingue
+     * mayúsculas (FTS siempre; LIKE solo en ASCII).
+     */
+    static String normalize(String query) {
+        String trimmed = query.trim();
+        if (trimmed.codePointCount(0, trimmed.length()) >= MIN_FTS_QUERY_LENGTH
+                || trimmed.chars().allMatch(c -> c < 0x80)) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        return trimmed;
+    }
+
+    private synchronized void putContacts(List<Contact> loaded, long readVersion) {
+        if (readVersion != version) {
+            return;
+        }
+        for (Contact contact : loaded) {
+            replace(contact);
+        }
+    }
+
+    private synchronized void putSearch(String key, List<Contact> found, long readVersion) {
+        if (readVersion != version) {
+            return;
+        }
+        int[] ids = new int[found.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = found.get(i).getId();
+        }
+        long weight = searchWeight(key, ids);
+        if (weight > maxSearchBytes) {
+            return;
+        }
+        int[] previous = searches.put(key, ids);
+        if (previous != null) {
+            searchBytes -= searchWeight(key, previous);
+        }
+        searchBytes += weight;
+        evictSearches();
+        for (Contact contact : found) {
+            replace(contact);
+        }
+    }
+
+    private void replace(Contact contact) {
+        Contact previous = contacts.put(contact.getId(), contact);
+        if (previous != null) {
+            contactBytes -= weight(previous);
+        }
+        contactBytes += weight(contact);
+        Iterator<Contact> eldest = contacts.values().iterator();
+        while (contactBytes > maxContactBytes && eldest.hasNext()) {
+            contactBytes -= weight(eldest.next());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void evictSearches() {
+        Iterator<Map.Entry<String, int[]>> eldest = searches.entrySet().iterator();
+        while (searchBytes > maxSearchBytes && eldest.hasNext()) {
+            Map.Entry<String, int[]> entry = eldest.next();
+            searchBytes -= searchWeight(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // Descarta las búsquedas que incluían el contacto o cuyo texto aparece ahora en él
+    private void invalidateSearches(Contact contact) {
+        String document = document(contact);
+        Iterator<Map.Entry<String, int[]>> entries = searches.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, int[]> entry = entries.next();
+            if (mayMatch(entry.getKey(), document) || contains(entry.getValue(), contact.getId())) {
+                searchBytes -= searchWeight(entry.getKey(), entry.getValue());
+                entries.remove();
+            }
+        }
+    }
+
+    // Aproximación por exceso de la coincidencia del DAO: los comodines de LIKE invalidan siempre
+    private static boolean mayMatch(String key, String document) {
+        if (key.codePointCount(0, key.length()) < MIN_FTS_QUERY_LENGTH
+                && (key.indexOf('%') >= 0 || key.indexOf('_') >= 0)) {
+            return true;
+        }
+        return document.contains(key.toLowerCase(Locale.ROOT));
+    }
+
+    private static String document(Contact contact) {
+        return (contact.getName() + '\u0000' + contact.getEmail() + '\u0000' + contact.getPhone() + '\u0000'
+                + contact.getContactType()).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int value : ids) {
+            if (value == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Estimación: cabecera del objeto y de la entrada del mapa más cada cadena (cabecera, arreglo y contenido)
+    private static long weight(Contact contact) {
+        return 96 + stringWeight(contact.getName()) + stringWeight(contact.getEmail())
+                + stringWeight(contact.getPhone()) + stringWeight(contact.getContactType());
+    }
+
+    private static long stringWeight(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static long searchWeight(String key, int[] ids) {
+        return 96 + stringWeight(key) + 16 + (long) ids.length * 4;
+    }
+
+    /**
+     * Contadores de aciertos y fallos y ocupación de la caché en un momento dado.
+     */
+    public static final class Stats {
+        private final long contactHits;
+        private final long contactMisses;
+        private final int contactCount;
+        private final long contactBytes;
+        private final long searchHits;
+        private final long searchMisses;
+        private final int searchCount;
+        private final long searchBytes;
+        private final long evictions;
+
+        Stats(long contactHits, long contactMisses, int contactCount, long contactBytes,
+              long searchHits, long searchMisses, int searchCount, long searchBytes, long evictions) {
+            this.contactHits = contactHits;
+            this.contactMisses = contactMisses;
+            this.contactCount = contactCount;
+            this.contactBytes = contactBytes;
+            this.searchHits = searchHits;
+            this.searchMisses = searchMisses;
+            this.searchCount = searchCount;
+            this.searchBytes = searchBytes;
+            this.evictions = evictions;
+        }
+
+        public long getContactHits() { return contactHits; }
+        public long getContactMisses() { return contactMisses; }
+        public int getContactCount() { return contactCount; }
+        public long getContactBytes() { return contactBytes; }
+        public long getSearchHits() { return searchHits; }
+        public long getSearchMisses() { return searchMisses; }
+        public int getSearchCount() { return searchCount; }
+        public long getSearchBytes() { return searchBytes; }
+        public long getEvictions() { return evictions; }
+
+        @Override
+        public String toString() {
+            return "Stats{contactHits=" + contactHits + ", contactMisses=" + contactMisses
+                    + ", contactCount=" + contactCount + ", contactBytes=" + contactBytes
+                    + ", searchHits=" + searchHits + ", searchMisses=" + searchMisses
+                    + ", searchCount=" + searchCount + ", searchBytes=" + searchBytes
+                    + ", evictions=" + evictions + "}";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.juliandev.model;
+
+/**
+ * Recibe las modificaciones hechas a través de {@link ContactDAO}, después de confirmarse.
+ */
+public interface ContactChangeListener {
+    void contactSaved(Contact contact);
+
+    void contactUpdated(Contact contact);
+
+    void contactDeleted(Contact contact);
+
+    /**
+     * Cambio masivo (por ejemplo, una importación): los datos deben volver a leerse.
+     */
+    void contactsReloaded();
+}
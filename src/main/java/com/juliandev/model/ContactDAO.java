@@ -1,19 +1,73 @@
 package com.juliandev.model;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.juliandev.metrics.Metrics;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteConnectionConfig;
+import org.sqlite.SQLiteErrorCode;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
-public class ContactDAO {
-    private static final String DB_URL = "jdbc:sqlite:contacts.db";
+public class ContactDAO implements AutoCloseable {
+    private static final int MIN_FTS_QUERY_LENGTH = 3;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    // Columnas que ve el usuario; solo sus cambios cuentan para FTS y para el registro de cambios
+    private static final String CONTACT_COLUMNS = "name, email, phone, contact_type, favorite";
+    private static final String FAVORITE_SQL = "UPDATE contacts SET favorite = ? WHERE id = ? RETURNING *";
+    // Claves de sync_info: identificador de esta base de datos y de la que replica, si replica alguna
+    private static final String DATABASE_ID = "database_id";
+    private static final String SYNC_SOURCE_ID = "source_id";
+    // Marca con la última secuencia del origen aplicada en esta réplica
+    private static final String APPLIED_SYNC_MARK = "applied";
+    private static final String SYNC_UPSERT_SQL = """
+            INSERT INTO contacts (id, name, email, phone, contact_type, favorite, email_norm, phone_norm)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET name = excluded.name, email = excluded.email, phone = excluded.phone,
+                contact_type = excluded.contact_type, favorite = excluded.favorite,
+                email_norm = excluded.email_norm, phone_norm = excluded.phone_norm
+            WHERE (name, email, phone, contact_type, favorite)
+                IS NOT (excluded.name, excluded.email, excluded.phone, excluded.contact_type, excluded.favorite)
+            """;
+
+    private final StorageProfile profile;
+    private final ConnectionPool pool;
+    private final List<ContactChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Hay filas sin columnas normalizadas (base de datos anterior a ellas) hasta que termina normalizePendingContacts
+    private volatile boolean pendingNormalization;
+    // Hay correos que solo cambian en mayúsculas o espacios, así que email_norm no tiene índice único
+    private volatile boolean duplicateNormalizedEmails;
 
     public ContactDAO() {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
+        this(StorageProfile.load());
+    }
+
+    public ContactDAO(StorageProfile profile) {
+        this.profile = profile;
+        this.pool = new ConnectionPool(profile.getJdbcUrl(), profile.toConnectionProperties(), profile.getPoolSize());
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
             String sql = """
                     CREATE TABLE IF NOT EXISTS contacts (
                         id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -21,149 +75,1632 @@ public class ContactDAO {
                         email TEXT NOT NULL UNIQUE,
                         phone TEXT,
                         contact_type TEXT,
-                        favorite BOOLEAN NOT NULL
+                        favorite BOOLEAN NOT NULL,
+                        email_norm TEXT,
+                        phone_norm TEXT
                     )
                     """;
-            Statement stmt = conn.createStatement();
             stmt.execute(sql);
+            initNormalizedColumns(stmt);
+            initSearchIndex(stmt);
+            initQueryIndexes(stmt);
+            initChangeLog(stmt);
         } catch (SQLException e) {
             throw new RuntimeException("Error initializing database: " + e.getMessage());
         }
     }
 
-    public void saveContact(Contact contact) {
-        String sql = "INSERT INTO contacts (name, email, phone, contact_type, favorite) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, contact.getName());
-            pstmt.setString(2, contact.getEmail());
-            pstmt.setString(3, contact.getPhone());
-            pstmt.setString(4, contact.getContactType());
-            pstmt.setBoolean(5, contact.isFavorite());
-            pstmt.executeUpdate();
-            ResultSet rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                contact.setId(rs.getInt(1));
+    // Columnas normalizadas (ContactNormalizer) para búsquedas exactas por correo y teléfono. Las
+    // escribe el DAO junto a email y phone; email_norm a NULL marca una fila pendiente de migrar
+    // (un correo vacío se guarda como '')
+    private void initNormalizedColumns(Statement stmt) throws SQLException {
+        boolean exists = false;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(contacts)")) {
+            while (rs.next()) {
+                exists |= "email_norm".equals(rs.getString("name"));
             }
+        }
+        if (!exists) {
+            stmt.execute("ALTER TABLE contacts ADD COLUMN email_norm TEXT");
+            stmt.execute("ALTER TABLE contacts ADD COLUMN phone_norm TEXT");
+            // Los triggers de actualización se recrean limitados a las columnas visibles, para que
+            // la migración no reindexe FTS ni llene el registro de cambios
+            stmt.execute("DROP TRIGGER IF EXISTS contacts_fts_au");
+            stmt.execute("DROP TRIGGER IF EXISTS contact_changes_au");
+        }
+        try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM contacts WHERE email_norm IS NULL)")) {
+            pendingNormalization = rs.next() && rs.getBoolean(1);
+        }
+        // Con filas pendientes, los índices se crean al terminar la migración: construirlos de una
+        // vez ordenando es mucho más rápido que mantenerlos fila a fila mientras se rellenan
+        if (!pendingNormalization) {
+            createNormalizedIndexes(stmt);
+        }
+    }
+
+    // El rowid va implícito en cada entrada: buscar IDs por valor no toca la tabla
+    private void createNormalizedIndexes(Statement stmt) throws SQLException {
+        createUniqueEmailIndex(stmt);
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_phone_norm ON contacts (phone_norm)");
+    }
+
+    // El índice de email_norm es único, así que un correo que solo cambia en mayúsculas o espacios choca
+    // en la propia sentencia de escritura. Si la base de datos ya tiene correos así, se crea un índice
+    // normal y se marca hasDuplicateNormalizedEmails hasta que se fusionen los duplicados
+    private void createUniqueEmailIndex(Statement stmt) throws SQLException {
+        try {
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_contacts_email_norm_unique ON contacts (email_norm)");
+            stmt.execute("DROP INDEX IF EXISTS idx_contacts_email_norm");
+            duplicateNormalizedEmails = false;
         } catch (SQLException e) {
-            throw new RuntimeException("Error saving contact: " + e.getMessage());
+            if (e.getErrorCode() != SQLiteErrorCode.SQLITE_CONSTRAINT.code) {
+                throw e;
+            }
+            duplicateNormalizedEmails = true;
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_email_norm ON contacts (email_norm)");
         }
     }
 
-    public void updateContact(Contact contact) {
-        String sql = "UPDATE contacts SET name = ?, email = ?, phone = ?, contact_type = ?, favorite = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Indica si hay correos que solo difieren en mayúsculas o espacios alrededor. Mientras los haya,
+     * {@code email_norm} no tiene índice único y esos correos no se tratan como el mismo al escribir;
+     * se resuelve fusionando los duplicados y llamando a {@link #retryUniqueEmailIndex()}.
+     */
+    public boolean hasDuplicateNormalizedEmails() {
+        return duplicateNormalizedEmails;
+    }
+
+    /**
+     * Vuelve a intentar crear el índice único de {@code email_norm}, por ejemplo después de fusionar
+     * duplicados. No hace nada mientras queden filas por normalizar.
+     *
+     * @return si el índice único existe
+     */
+    public boolean retryUniqueEmailIndex() {
+        long start = Metrics.start();
+        try {
+            if (pendingNormalization) {
+                return false;
+            }
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                createUniqueEmailIndex(stmt);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error creating email index: " + e.getMessage());
+            }
+            return !duplicateNormalizedEmails;
+        } finally {
+            Metrics.record("dao.retryUniqueEmailIndex", start);
+        }
+    }
+
+    // Índices para ordenar y filtrar listados; las columnas que admiten NULL se indexan con la expresión de ContactQuery
+    private void initQueryIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_name ON contacts (name)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_phone ON contacts (IFNULL(phone, ''))");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_type ON contacts (IFNULL(contact_type, ''))");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_favorite ON contacts (favorite)");
+        // Filtro más orden por nombre, el listado habitual
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_type_name ON contacts (IFNULL(contact_type, ''), name)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contacts_favorite_name ON contacts (favorite, name)");
+    }
+
+    // Registro de cambios (CDC): una fila por contacto insertado, modificado o borrado, con una
+    // secuencia que solo crece (AUTOINCREMENT no reutiliza valores aunque se borren filas del registro)
+    private void initChangeLog(Statement stmt) throws SQLException {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'contact_changes'")) {
+            exists = rs.next();
+        }
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS contact_changes (
+                    seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                    op TEXT NOT NULL CHECK (op IN ('I', 'U', 'D')),
+                    contact_id INTEGER NOT NULL,
+                    changed_at INTEGER NOT NULL
+                )
+                """);
+        // Última secuencia exportada o aplicada, por nombre
+        stmt.execute("CREATE TABLE IF NOT EXISTS sync_marks (name TEXT PRIMARY KEY, sequence INTEGER NOT NULL)");
+        // Identidad para la sincronización: cada base de datos recibe un identificador aleatorio al crearse
+        stmt.execute("CREATE TABLE IF NOT EXISTS sync_info (name TEXT PRIMARY KEY, value TEXT NOT NULL)");
+        stmt.execute("INSERT OR IGNORE INTO sync_info (name, value) VALUES ('" + DATABASE_ID + "', lower(hex(randomblob(16))))");
+        String[][] triggers = {{"ai", "INSERT", "I", "new"}, {"au", "UPDATE OF " + CONTACT_COLUMNS, "U", "new"},
+                {"ad", "DELETE", "D", "old"}};
+        for (String[] trigger : triggers) {
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS contact_changes_%s AFTER %s ON contacts BEGIN
+                        INSERT INTO contact_changes (op, contact_id, changed_at)
+                        VALUES ('%s', %s.id, CAST(unixepoch('subsec') * 1000 AS INTEGER));
+                    END
+                    """.formatted((Object[]) trigger));
+        }
+        if (!exists) {
+            // Base de datos existente: las filas que ya estaban cuentan como inserciones, de modo que
+            // los cambios desde la secuencia 0 reconstruyen la tabla completa
+            stmt.execute("""
+                    INSERT INTO contact_changes (op, contact_id, changed_at)
+                    SELECT 'I', id, CAST(unixepoch('subsec') * 1000 AS INTEGER) FROM contacts ORDER BY id
+                    """);
+        }
+    }
+
+    // Índice FTS5 (trigramas) sincronizado con contacts mediante triggers
+    private void initSearchIndex(Statement stmt) throws SQLException {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'contacts_fts'")) {
+            exists = rs.next();
+        }
+        stmt.execute("""
+                CREATE VIRTUAL TABLE IF NOT EXISTS contacts_fts USING fts5(
+                    name, email, phone, contact_type,
+                    content = 'contacts', content_rowid = 'id', tokenize = 'trigram'
+                )
+                """);
+        stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS contacts_fts_ai AFTER INSERT ON contacts BEGIN
+                    INSERT INTO contacts_fts (rowid, name, email, phone, contact_type)
+                    VALUES (new.id, new.name, new.email, new.phone, new.contact_type);
+                END
+                """);
+        stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS contacts_fts_ad AFTER DELETE ON contacts BEGIN
+                    INSERT INTO contacts_fts (contacts_fts, rowid, name, email, phone, contact_type)
+                    VALUES ('delete', old.id, old.name, old.email, old.phone, old.contact_type);
+                END
+                """);
+        stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS contacts_fts_au AFTER UPDATE OF %s ON contacts BEGIN
+                    INSERT INTO contacts_fts (contacts_fts, rowid, name, email, phone, contact_type)
+                    VALUES ('delete', old.id, old.name, old.email, old.phone, old.contact_type);
+                    INSERT INTO contacts_fts (rowid, name, email, phone, contact_type)
+                    VALUES (new.id, new.name, new.email, new.phone, new.contact_type);
+                END
+                """.formatted(CONTACT_COLUMNS));
+        if (!exists) {
+            // Base de datos existente: indexar las filas que ya estaban
+            stmt.execute("INSERT INTO contacts_fts (contacts_fts) VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Inserta el contacto y devuelve la fila almacenada, con el ID asignado por SQLite.
+     */
+    public Contact saveContact(Contact contact) {
+        long start = Metrics.start();
+        try {
+            String sql = "INSERT INTO contacts (name, email, phone, contact_type, favorite, email_norm, phone_norm) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING *";
+            Contact saved;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, contact.getName());
+                pstmt.setString(2, contact.getEmail());
+                pstmt.setString(3, contact.getPhone());
+                pstmt.setString(4, contact.getContactType());
+                pstmt.setBoolean(5, contact.isFavorite());
+                bindNormalized(pstmt, 6, contact);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    saved = mapContact(rs);
+                    contact.setId(saved.getId());
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving contact: " + e.getMessage());
+            }
+            for (ContactChangeListener listener : listeners) {
+                listener.contactSaved(saved);
+            }
+            return saved;
+        } finally {
+            Metrics.record("dao.saveContact", start);
+        }
+    }
+
+    /**
+     * Inserta el contacto solo si su correo no está registrado, sin distinguir mayúsculas ni espacios
+     * alrededor, en una única sentencia atómica apoyada en los índices únicos: {@code INSERTED} con
+     * la fila almacenada, o {@code CONFLICT}.
+     */
+    public UpsertResult insertIfEmailAbsent(Contact contact) {
+        long start = Metrics.start();
+        try {
+            Contact saved;
+            try (Connection conn = pool.getConnection()) {
+                saved = insertIfEmailAbsent(conn, contact);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving contact: " + e.getMessage());
+            }
+            if (saved == null) {
+                return new UpsertResult(UpsertResult.Status.CONFLICT, null);
+            }
+            contact.setId(saved.getId());
+            for (ContactChangeListener listener : listeners) {
+                listener.contactSaved(saved);
+            }
+            return new UpsertResult(UpsertResult.Status.INSERTED, saved);
+        } finally {
+            Metrics.record("dao.insertIfEmailAbsent", start);
+        }
+    }
+
+    private Contact insertIfEmailAbsent(Connection conn, Contact contact) throws SQLException {
+        String sql = """
+                INSERT INTO contacts (name, email, phone, contact_type, favorite, email_norm, phone_norm)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT DO NOTHING RETURNING *
+                """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, contact.getName());
             pstmt.setString(2, contact.getEmail());
             pstmt.setString(3, contact.getPhone());
             pstmt.setString(4, contact.getContactType());
             pstmt.setBoolean(5, contact.isFavorite());
-            pstmt.setInt(6, contact.getId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating contact: " + e.getMessage());
+            bindNormalized(pstmt, 6, contact);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapContact(rs) : null;
+            }
         }
     }
 
-    public void deleteContact(int id) {
-        String sql = "DELETE FROM contacts WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Actualiza el contacto salvo que su nuevo correo pertenezca a otro, sin distinguir mayúsculas
+     * ni espacios alrededor: {@code UPDATED}, {@code CONFLICT} o {@code NOT_FOUND}. El caso habitual
+     * es una sola sentencia ({@code UPDATE OR IGNORE}, que cede ante cualquier índice único); solo si
+     * no se actualiza nada se comprueba si el ID existe.
+     */
+    public UpsertResult updateIfEmailAvailable(Contact contact) {
+        long start = Metrics.start();
+        try {
+            String sql = "UPDATE OR IGNORE contacts SET name = ?, email = ?, phone = ?, contact_type = ?, favorite = ?, "
+                    + "email_norm = ?, phone_norm = ? WHERE id = ? RETURNING *";
+            UpsertResult result;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, contact.getName());
+                pstmt.setString(2, contact.getEmail());
+                pstmt.setString(3, contact.getPhone());
+                pstmt.setString(4, contact.getContactType());
+                pstmt.setBoolean(5, contact.isFavorite());
+                bindNormalized(pstmt, 6, contact);
+                pstmt.setInt(8, contact.getId());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    result = rs.next()
+                            ? new UpsertResult(UpsertResult.Status.UPDATED, mapContact(rs))
+                            : new UpsertResult(exists(conn, contact.getId())
+                                    ? UpsertResult.Status.CONFLICT : UpsertResult.Status.NOT_FOUND, null);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating contact: " + e.getMessage());
+            }
+            if (result.getContact() != null) {
+                for (ContactChangeListener listener : listeners) {
+                    listener.contactUpdated(result.getContact());
+                }
+            }
+            return result;
+        } finally {
+            Metrics.record("dao.updateIfEmailAvailable", start);
+        }
+    }
+
+    // BEGIN IMMEDIATE para transacciones que leen y luego escriben: el bloqueo de escritura se toma al
+    // empezar, así que otro escritor espera el busy_timeout. Con BEGIN diferido, si otro confirma entre
+    // la lectura y la escritura, ampliar la lectura falla con SQLITE_BUSY_SNAPSHOT sin reintentarse.
+    // El modo solo afecta a este BEGIN: tras el commit o el rollback el driver vuelve a abrir una
+    // transacción diferida, y la conexión regresa al pool como estaba
+    private static void beginImmediate(Connection conn) throws SQLException {
+        SQLiteConnectionConfig config = conn.unwrap(SQLiteConnection.class).getConnectionConfig();
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        try {
+            conn.setAutoCommit(false);
+        } finally {
+            config.setTransactionMode(SQLiteConfig.TransactionMode.DEFERRED);
+        }
+    }
+
+    /**
+     * Inserta el contacto o, si su correo ya existe (sin distinguir mayúsculas ni espacios alrededor),
+     * actualiza ese contacto con el resto de campos, en una transacción: {@code INSERTED} o
+     * {@code UPDATED} con la fila almacenada. El contacto existente conserva su correo.
+     */
+    public UpsertResult upsertByEmail(Contact contact) {
+        long start = Metrics.start();
+        try {
+            // El correo idéntico primero: mientras email_norm no es único, es el único choque posible
+            String updateSql = "UPDATE contacts SET name = ?, phone = ?, contact_type = ?, favorite = ?, phone_norm = ? "
+                    + "WHERE id = COALESCE((SELECT id FROM contacts WHERE email = ?), "
+                    + "(SELECT id FROM contacts WHERE email_norm = ?)) RETURNING *";
+            UpsertResult result;
+            try (Connection conn = pool.getConnection()) {
+                beginImmediate(conn);
+                try {
+                    Contact saved = insertIfEmailAbsent(conn, contact);
+                    if (saved != null) {
+                        result = new UpsertResult(UpsertResult.Status.INSERTED, saved);
+                    } else {
+                        // La inserción ya tomó el bloqueo de escritura: la fila en conflicto sigue ahí
+                        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                            pstmt.setString(1, contact.getName());
+                            pstmt.setString(2, contact.getPhone());
+                            pstmt.setString(3, contact.getContactType());
+                            pstmt.setBoolean(4, contact.isFavorite());
+                            pstmt.setString(5, ContactNormalizer.phone(contact.getPhone()));
+                            pstmt.setString(6, contact.getEmail());
+                            pstmt.setString(7, normalizedEmail(contact.getEmail()));
+                            try (ResultSet rs = pstmt.executeQuery()) {
+                                rs.next();
+                                result = new UpsertResult(UpsertResult.Status.UPDATED, mapContact(rs));
+                            }
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving contact: " + e.getMessage());
+            }
+            contact.setId(result.getContact().getId());
+            for (ContactChangeListener listener : listeners) {
+                if (result.getStatus() == UpsertResult.Status.INSERTED) {
+                    listener.contactSaved(result.getContact());
+                } else {
+                    listener.contactUpdated(result.getContact());
+                }
+            }
+            return result;
+        } finally {
+            Metrics.record("dao.upsertByEmail", start);
+        }
+    }
+
+    private boolean exists(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM contacts WHERE id = ?")) {
             pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting contact: " + e.getMessage());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Actualiza el contacto y devuelve la fila resultante, o {@code null} si el ID ya no existe.
+     */
+    public Contact updateContact(Contact contact) {
+        long start = Metrics.start();
+        try {
+            String sql = "UPDATE contacts SET name = ?, email = ?, phone = ?, contact_type = ?, favorite = ?, "
+                    + "email_norm = ?, phone_norm = ? WHERE id = ? RETURNING *";
+            Contact updated;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, contact.getName());
+                pstmt.setString(2, contact.getEmail());
+                pstmt.setString(3, contact.getPhone());
+                pstmt.setString(4, contact.getContactType());
+                pstmt.setBoolean(5, contact.isFavorite());
+                bindNormalized(pstmt, 6, contact);
+                pstmt.setInt(8, contact.getId());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    updated = rs.next() ? mapContact(rs) : null;
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating contact: " + e.getMessage());
+            }
+            if (updated != null) {
+                for (ContactChangeListener listener : listeners) {
+                    listener.contactUpdated(updated);
+                }
+            }
+            return updated;
+        } finally {
+            Metrics.record("dao.updateContact", start);
+        }
+    }
+
+    /**
+     * Elimina el contacto y devuelve la fila borrada, o {@code null} si el ID no existía.
+     */
+    public Contact deleteContact(int id) {
+        long start = Metrics.start();
+        try {
+            String sql = "DELETE FROM contacts WHERE id = ? RETURNING *";
+            Contact deleted;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    deleted = rs.next() ? mapContact(rs) : null;
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting contact: " + e.getMessage());
+            }
+            if (deleted != null) {
+                for (ContactChangeListener listener : listeners) {
+                    listener.contactDeleted(deleted);
+                }
+            }
+            return deleted;
+        } finally {
+            Metrics.record("dao.deleteContact", start);
+        }
+    }
+
+    /**
+     * Cambia solo la columna {@code favorite} y devuelve la fila resultante, o {@code null} si el ID ya no existe.
+     */
+    public Contact updateFavorite(int id, boolean favorite) {
+        long start = Metrics.start();
+        try {
+            Contact updated;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(FAVORITE_SQL)) {
+                pstmt.setBoolean(1, favorite);
+                pstmt.setInt(2, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    updated = rs.next() ? mapContact(rs) : null;
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating contact: " + e.getMessage());
+            }
+            if (updated != null) {
+                for (ContactChangeListener listener : listeners) {
+                    listener.contactUpdated(updated);
+                }
+            }
+            return updated;
+        } finally {
+            Metrics.record("dao.updateFavorite", start);
+        }
+    }
+
+    public Contact[] applyWrites(List<Contact> updates, int[] deleteIds) {
+        return applyWrites(updates, new int[0], new boolean[0], deleteIds);
+    }
+
+    /**
+     * Aplica actualizaciones completas, cambios de favorito ({@code favoriteIds[i]} pasa a
+     * {@code favorites[i]}) y borrados en una sola transacción, y notifica a los oyentes después del commit.
+     * Devuelve las filas resultantes en ese orden (actualizaciones, favoritos y borrados), con {@code null}
+     * donde el contacto ya no existía. Si falla cualquier sentencia no se aplica ninguna.
+     */
+    public Contact[] applyWrites(List<Contact> updates, int[] favoriteIds, boolean[] favorites, int[] deleteIds) {
+        long start = Metrics.start();
+        try {
+            String updateSql = "UPDATE contacts SET name = ?, email = ?, phone = ?, contact_type = ?, favorite = ?, "
+                    + "email_norm = ?, phone_norm = ? WHERE id = ? RETURNING *";
+            String deleteSql = "DELETE FROM contacts WHERE id = ? RETURNING *";
+            Contact[] results = new Contact[updates.size() + favoriteIds.length + deleteIds.length];
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement update = conn.prepareStatement(updateSql);
+                 PreparedStatement favorite = conn.prepareStatement(FAVORITE_SQL);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                conn.setAutoCommit(false);
+                try {
+                    int i = 0;
+                    for (Contact contact : updates) {
+                        update.setString(1, contact.getName());
+                        update.setString(2, contact.getEmail());
+                        update.setString(3, contact.getPhone());
+                        update.setString(4, contact.getContactType());
+                        update.setBoolean(5, contact.isFavorite());
+                        bindNormalized(update, 6, contact);
+                        update.setInt(8, contact.getId());
+                        try (ResultSet rs = update.executeQuery()) {
+                            results[i++] = rs.next() ? mapContact(rs) : null;
+                        }
+                    }
+                    for (int f = 0; f < favoriteIds.length; f++) {
+                        favorite.setBoolean(1, favorites[f]);
+                        favorite.setInt(2, favoriteIds[f]);
+                        try (ResultSet rs = favorite.executeQuery()) {
+                            results[i++] = rs.next() ? mapContact(rs) : null;
+                        }
+                    }
+                    for (int id : deleteIds) {
+                        delete.setInt(1, id);
+                        try (ResultSet rs = delete.executeQuery()) {
+                            results[i++] = rs.next() ? mapContact(rs) : null;
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error applying contact changes: " + e.getMessage());
+            }
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    continue;
+                }
+                for (ContactChangeListener listener : listeners) {
+                    if (i < updates.size() + favoriteIds.length) {
+                        listener.contactUpdated(results[i]);
+                    } else {
+                        listener.contactDeleted(results[i]);
+                    }
+                }
+            }
+            return results;
+        } finally {
+            Metrics.record("dao.applyWrites", start);
         }
     }
 
     public List<Contact> getAllContacts() {
-        List<Contact> contacts = new ArrayList<>();
-        String sql = "SELECT * FROM contacts";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Contact contact = new Contact(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("contact_type"),
-                        rs.getBoolean("favorite")
-                );
-                contacts.add(contact);
+        long start = Metrics.start();
+        try {
+            List<Contact> contacts = new ArrayList<>();
+            String sql = "SELECT * FROM contacts";
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    contacts.add(mapContact(rs));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contacts: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error retrieving contacts: " + e.getMessage());
+            return contacts;
+        } finally {
+            Metrics.record("dao.getAllContacts", start);
+        }
+    }
+
+    /**
+     * Recorre todos los contactos en orden de ID leyendo del cursor, sin materializar la lista.
+     */
+    public void forEachContact(Consumer<Contact> consumer) {
+        long start = Metrics.start();
+        try {
+            String sql = "SELECT * FROM contacts ORDER BY id";
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    consumer.accept(mapContact(rs));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contacts: " + e.getMessage());
+            }
+        } finally {
+            Metrics.record("dao.forEachContact", start);
+        }
+    }
+
+    /**
+     * Devuelve los contactos con los IDs indicados, en orden de ID; los que no existen se omiten.
+     */
+    public List<Contact> getContactsByIds(int[] ids) {
+        long start = Metrics.start();
+        try {
+            List<Contact> contacts = new ArrayList<>(ids.length);
+            if (ids.length == 0) {
+                return contacts;
+            }
+            String sql = "SELECT * FROM contacts WHERE id IN (" + "?,".repeat(ids.length - 1) + "?) ORDER BY id";
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < ids.length; i++) {
+                    pstmt.setInt(i + 1, ids[i]);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        contacts.add(mapContact(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contacts: " + e.getMessage());
+            }
+            return contacts;
+        } finally {
+            Metrics.record("dao.getContactsByIds", start);
+        }
+    }
+
+    public int[] getAllContactIds() {
+        long start = Metrics.start();
+        try {
+            int[] ids = new int[1024];
+            int count = 0;
+            String sql = "SELECT id FROM contacts ORDER BY id";
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = rs.getInt(1);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contact ids: " + e.getMessage());
+            }
+            return Arrays.copyOf(ids, count);
+        } finally {
+            Metrics.record("dao.getAllContactIds", start);
+        }
+    }
+
+    /**
+     * Devuelve {@code {min, max}} de los IDs existentes, o {@code null} si no hay contactos.
+     */
+    public int[] getIdBounds() {
+        long start = Metrics.start();
+        try {
+            String sql = "SELECT MIN(id), MAX(id) FROM contacts";
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                rs.next();
+                int min = rs.getInt(1);
+                return rs.wasNull() ? null : new int[]{min, rs.getInt(2)};
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contact id bounds: " + e.getMessage());
+            }
+        } finally {
+            Metrics.record("dao.getIdBounds", start);
+        }
+    }
+
+    /**
+     * Recorre con un cursor los contactos con ID en {@code [fromId, toId)}, en orden de ID,
+     * entregando los campos como bytes UTF-8 sin decodificarlos.
+     */
+    public void scanContactRows(int fromId, int toId, ContactRowVisitor visitor) throws IOException {
+        long start = Metrics.start();
+        try {
+            String sql = "SELECT id, name, email, phone, contact_type, favorite FROM contacts "
+                    + "WHERE id >= ? AND id < ? ORDER BY id";
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, fromId);
+                pstmt.setInt(2, toId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        visitor.visit(rs.getInt(1), rs.getBytes(2), rs.getBytes(3), rs.getBytes(4), rs.getBytes(5),
+                                rs.getBoolean(6));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error scanning contacts: " + e.getMessage());
+            }
+        } finally {
+            Metrics.record("dao.scanContactRows", start);
+        }
+    }
+
+    /**
+     * IDs de los contactos que cumplen el filtro, en el orden de la consulta.
+     */
+    public int[] queryContactIds(ContactQuery query) {
+        long start = Metrics.start();
+        try {
+            int[] ids = new int[1024];
+            int count = 0;
+            String sql = "SELECT id FROM contacts" + whereClause(query, null) + orderClause(query);
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                bindFilters(pstmt, query, 1);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                        }
+                        ids[count++] = rs.getInt(1);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contact ids: " + e.getMessage());
+            }
+            return Arrays.copyOf(ids, count);
+        } finally {
+            Metrics.record("dao.queryContactIds", start);
+        }
+    }
+
+    /**
+     * Paginación por clave en el orden de la consulta: devuelve hasta {@code limit} contactos situados
+     * después del contacto {@code afterId} (0 para la primera página), es decir, con
+     * {@code (columna, id) > (columna de afterId, afterId)}. Si {@code afterId} ya no existe, la página está vacía.
+     *
+     * <p>La condición se divide en dos búsquedas por índice que SQLite sí sabe acotar: el resto del grupo
+     * con la misma clave ({@code columna = clave AND id > afterId}) y las claves siguientes
+     * ({@code columna > clave}). Así el coste no depende de la página ni de cuántas filas comparten clave.</p>
+     *
+     * <p>La clave de {@code afterId} es la que tiene ahora en la base de datos. Quien conserve la lista de IDs
+     * de un listado anterior debe cargar sus páginas con {@link #getContactsByIds}: si esa fila ha cambiado
+     * de clave desde entonces, la página seguiría desde otro punto del orden.</p>
+     */
+    public List<Contact> queryContacts(ContactQuery query, int afterId, int limit) {
+        long start = Metrics.start();
+        try {
+            ContactQuery.SortColumn sort = query.getEffectiveSortColumn();
+            String sql;
+            if (afterId == 0) {
+                sql = "SELECT * FROM contacts" + whereClause(query, null) + orderClause(query) + " LIMIT ?";
+            } else if (sort == ContactQuery.SortColumn.ID) {
+                sql = "SELECT * FROM contacts" + whereClause(query, "id " + (query.isAscending() ? ">" : "<") + " ?")
+                        + orderClause(query) + " LIMIT ?";
+            } else {
+                String op = query.isAscending() ? ">" : "<";
+                String key = "(SELECT " + sort.expression() + " FROM contacts WHERE id = ?)";
+                String order = orderClause(query);
+                sql = "SELECT * FROM ("
+                        + "SELECT * FROM (SELECT * FROM contacts"
+                        + whereClause(query, sort.expression() + " = " + key + " AND id " + op + " ?")
+                        + " ORDER BY id" + (query.isAscending() ? " ASC" : " DESC") + " LIMIT ?)"
+                        + " UNION ALL "
+                        + "SELECT * FROM (SELECT * FROM contacts"
+                        + whereClause(query, sort.expression() + " " + op + " " + key)
+                        + order + " LIMIT ?)"
+                        + ")" + order + " LIMIT ?";
+            }
+            List<Contact> contacts = new ArrayList<>(limit);
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = bindFilters(pstmt, query, 1);
+                if (afterId != 0 && sort != ContactQuery.SortColumn.ID) {
+                    pstmt.setInt(index++, afterId);
+                    pstmt.setInt(index++, afterId);
+                    pstmt.setInt(index++, limit);
+                    index = bindFilters(pstmt, query, index);
+                    pstmt.setInt(index++, afterId);
+                    pstmt.setInt(index++, limit);
+                } else if (afterId != 0) {
+                    pstmt.setInt(index++, afterId);
+                }
+                pstmt.setInt(index, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        contacts.add(mapContact(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contacts page: " + e.getMessage());
+            }
+            return contacts;
+        } finally {
+            Metrics.record("dao.queryContacts", start);
+        }
+    }
+
+    private static String whereClause(ContactQuery query, String extraCondition) {
+        List<String> conditions = new ArrayList<>(3);
+        if (query.getContactType() != null) {
+            conditions.add("IFNULL(contact_type, '') = ?");
+        }
+        if (query.getFavorite() != null) {
+            conditions.add("favorite = ?");
+        }
+        if (extraCondition != null) {
+            conditions.add(extraCondition);
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static String orderClause(ContactQuery query) {
+        String direction = query.isAscending() ? " ASC" : " DESC";
+        ContactQuery.SortColumn sort = query.getEffectiveSortColumn();
+        return sort == ContactQuery.SortColumn.ID
+                ? " ORDER BY id" + direction
+                : " ORDER BY " + sort.expression() + direction + ", id" + direction;
+    }
+
+    // Devuelve el índice del siguiente parámetro libre
+    private static int bindFilters(PreparedStatement pstmt, ContactQuery query, int index) throws SQLException {
+        if (query.getContactType() != null) {
+            pstmt.setString(index++, query.getContactType());
+        }
+        if (query.getFavorite() != null) {
+            pstmt.setBoolean(index++, query.getFavorite());
+        }
+        return index;
+    }
+
+    /**
+     * Paginación por clave: devuelve hasta {@code limit} contactos con ID mayor que {@code afterId}.
+     */
+    public List<Contact> getContactsAfter(int afterId, int limit) {
+        long start = Metrics.start();
+        try {
+            List<Contact> contacts = new ArrayList<>(limit);
+            String sql = "SELECT * FROM contacts WHERE id > ? ORDER BY id LIMIT ?";
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, afterId);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        contacts.add(mapContact(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error retrieving contacts page: " + e.getMessage());
+            }
+            return contacts;
+        } finally {
+            Metrics.record("dao.getContactsAfter", start);
         }
-        return contacts;
     }
 
     public List<Contact> searchContacts(String query) {
         List<Contact> contacts = new ArrayList<>();
-        String sql = "SELECT * FROM contacts WHERE name LIKE ? OR email LIKE ? OR phone LIKE ? OR contact_type LIKE ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            String searchQuery = "%" + query + "%";
-            pstmt.setString(1, searchQuery);
-            pstmt.setString(2, searchQuery);
-            pstmt.setString(3, searchQuery);
-            pstmt.setString(4, searchQuery);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Contact contact = new Contact(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("contact_type"),
-                        rs.getBoolean("favorite")
-                );
-                contacts.add(contact);
+        searchContacts(query, new CancellableQuery(), contacts::add);
+        return contacts;
+    }
+
+    /**
+     * Entrega cada coincidencia a {@code consumer} a medida que se lee del cursor.
+     * Si {@code handle} se cancela, la consulta se interrumpe y el método vuelve sin error.
+     */
+    public void searchContacts(String query, CancellableQuery handle, Consumer<Contact> consumer) {
+        long start = Metrics.start();
+        try {
+            // El tokenizador trigram necesita al menos 3 caracteres; consultas más cortas usan LIKE
+            boolean useFts = query.codePointCount(0, query.length()) >= MIN_FTS_QUERY_LENGTH;
+            String sql = useFts
+                    ? """
+                    SELECT c.* FROM contacts_fts f
+                    JOIN contacts c ON c.id = f.rowid
+                    WHERE contacts_fts MATCH ?
+                    ORDER BY f.rank
+                    """
+                    : "SELECT * FROM contacts WHERE name LIKE ? OR email LIKE ? OR phone LIKE ? OR contact_type LIKE ?";
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (useFts) {
+                    pstmt.setString(1, "\"" + query.replace("\"", "\"\"") + "\"");
+                } else {
+                    String searchQuery = "%" + query + "%";
+                    pstmt.setString(1, searchQuery);
+                    pstmt.setString(2, searchQuery);
+                    pstmt.setString(3, searchQuery);
+                    pstmt.setString(4, searchQuery);
+                }
+                handle.register(pstmt);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (!handle.isCancelled() && rs.next()) {
+                        consumer.accept(mapContact(rs));
+                    }
+                } finally {
+                    handle.unregister();
+                }
+            } catch (SQLException e) {
+                if (!handle.isCancelled()) {
+                    throw new RuntimeException("Error searching contacts: " + e.getMessage());
+                }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error searching contacts: " + e.getMessage());
+        } finally {
+            Metrics.record("dao.searchContacts", start);
         }
-        return contacts;
     }
 
+    /**
+     * Indica si otro contacto usa ya el correo, sin distinguir mayúsculas ni espacios alrededor.
+     * Mientras haya filas pendientes de migrar solo se detecta el correo idéntico, con el índice único.
+     */
     public boolean emailExists(String email, int excludeId) {
-        String sql = "SELECT COUNT(*) FROM contacts WHERE email = ? AND id != ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        long start = Metrics.start();
+        try {
+            boolean pending = pendingNormalization;
+            String sql = pending
+                    ? "SELECT EXISTS (SELECT 1 FROM contacts WHERE email = ? AND id != ?)"
+                    : "SELECT EXISTS (SELECT 1 FROM contacts WHERE email_norm = ? AND id != ?)";
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, pending ? email : normalizedEmail(email));
+                pstmt.setInt(2, excludeId);
+                ResultSet rs = pstmt.executeQuery();
+                return rs.getBoolean(1);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error checking email: " + e.getMessage());
+            }
+        } finally {
+            Metrics.record("dao.emailExists", start);
+        }
+    }
+
+    /**
+     * Contactos con ese correo, sin distinguir mayúsculas ni espacios alrededor, ordenados por ID.
+     * Es una búsqueda exacta en el índice de {@code email_norm}, no un {@code LIKE}.
+     */
+    public List<Contact> findByEmail(String email) {
+        long start = Metrics.start();
+        try {
+            return findByNormalized("email_norm", ContactNormalizer.email(email), ContactNormalizer::email,
+                    Contact::getEmail);
+        } finally {
+            Metrics.record("dao.findByEmail", start);
+        }
+    }
+
+    /**
+     * Contactos con ese teléfono una vez normalizado ("+34 600 11 22 33" y "0034600112233" son el
+     * mismo), ordenados por ID. Es una búsqueda exacta en el índice de {@code phone_norm}.
+     */
+    public List<Contact> findByPhone(String phone) {
+        long start = Metrics.start();
+        try {
+            return findByNormalized("phone_norm", ContactNormalizer.phone(phone), ContactNormalizer::phone,
+                    Contact::getPhone);
+        } finally {
+            Metrics.record("dao.findByPhone", start);
+        }
+    }
+
+    // Mientras la migración no termina, las filas pendientes se normalizan y comparan aquí
+    private List<Contact> findByNormalized(String column, String value, UnaryOperator<String> normalizer,
+                                           Function<Contact, String> field) {
+        List<Contact> contacts = new ArrayList<>();
+        if (value == null) {
+            return contacts;
+        }
+        boolean pending = pendingNormalization;
+        String sql = "SELECT * FROM contacts WHERE " + column + " = ?"
+                + (pending ? " UNION ALL SELECT * FROM contacts WHERE email_norm IS NULL" : "")
+                + " ORDER BY id";
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            pstmt.setInt(2, excludeId);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.getInt(1) > 0;
+            pstmt.setString(1, value);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Contact contact = mapContact(rs);
+                    if (!pending || rs.getString("email_norm") != null
+                            || value.equals(normalizer.apply(field.apply(contact)))) {
+                        contacts.add(contact);
+                    }
+                }
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Error checking email: " + e.getMessage());
+            throw new RuntimeException("Error finding contacts by " + column + ": " + e.getMessage());
         }
+        return contacts;
+    }
+
+    /**
+     * Indica si quedan filas sin columnas normalizadas, de una base de datos anterior a ellas.
+     */
+    public boolean hasPendingNormalization() {
+        return pendingNormalization;
     }
 
+    public int normalizePendingContacts() {
+        return normalizePendingContacts(Integer.getInteger("contacts.normalize.batch.size", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Rellena {@code email_norm} y {@code phone_norm} de las filas pendientes, por lotes de
+     * {@code batchSize} en transacciones cortas para no bloquear a otros escritores, y después crea
+     * sus índices. Las filas que otro escritor modifica mientras tanto ya quedan normalizadas y se
+     * saltan. Estas actualizaciones no pasan por FTS ni por el registro de cambios.
+     *
+     * @return número de filas normalizadas
+     */
+    public int normalizePendingContacts(int batchSize) {
+        long start = Metrics.start();
+        try {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+            }
+            String selectSql = "SELECT id, email, phone FROM contacts WHERE email_norm IS NULL AND id > ? ORDER BY id LIMIT ?";
+            String updateSql = "UPDATE contacts SET email_norm = ?, phone_norm = ? WHERE id = ? AND email_norm IS NULL";
+            int normalized = 0;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+                int afterId = Integer.MIN_VALUE;
+                while (true) {
+                    // La lectura y las actualizaciones van en la misma transacción: se empieza con el
+                    // bloqueo de escritura para que una edición del usuario no la invalide a medias
+                    beginImmediate(conn);
+                    int rows = 0;
+                    try {
+                        select.setInt(1, afterId);
+                        select.setInt(2, batchSize);
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                afterId = rs.getInt(1);
+                                update.setString(1, normalizedEmail(rs.getString(2)));
+                                update.setString(2, ContactNormalizer.phone(rs.getString(3)));
+                                update.setInt(3, afterId);
+                                update.addBatch();
+                                rows++;
+                            }
+                        }
+                        for (int count : update.executeBatch()) {
+                            normalized += Math.max(count, 0);
+                        }
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                    if (rows < batchSize) {
+                        break;
+                    }
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    createNormalizedIndexes(stmt);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error normalizing contacts: " + e.getMessage());
+            }
+            pendingNormalization = false;
+            return normalized;
+        } finally {
+            Metrics.record("dao.normalizePendingContacts", start);
+        }
+    }
+
+    /**
+     * Escribe los contactos en streaming desde el cursor del ResultSet,
+     * con memoria constante sin importar el tamaño de la agenda.
+     */
     public void serializeToJson(File file) {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        long start = Metrics.start();
+        try {
+            String sql = "SELECT id, name, email, phone, contact_type, favorite FROM contacts ORDER BY id";
+            JsonFactory factory = new ObjectMapper().getFactory();
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql);
+                 JsonGenerator generator = factory.createGenerator(file, JsonEncoding.UTF8)) {
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartArray();
+                while (rs.next()) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getInt(1));
+                    generator.writeStringField("name", rs.getString(2));
+                    generator.writeStringField("email", rs.getString(3));
+                    generator.writeStringField("phone", rs.getString(4));
+                    generator.writeStringField("contactType", rs.getString(5));
+                    generator.writeBooleanField("favorite", rs.getBoolean(6));
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            } catch (Exception e) {
+                throw new RuntimeException("Error serializing contacts to JSON: " + e.getMessage());
+            }
+        } finally {
+            Metrics.record("dao.serializeToJson", start);
+        }
+    }
+
+    public ImportResult deserializeFromJson(File file) {
+        return deserializeFromJson(file, Integer.getInteger("contacts.import.batch.size", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Lee el arreglo JSON elemento a elemento y lo inserta por lotes,
+     * sin cargar el archivo completo en memoria.
+     */
+    public ImportResult deserializeFromJson(File file, int batchSize) {
+        long start = Metrics.start();
+        try {
+            ObjectReader reader = new ObjectMapper().readerFor(Contact.class);
+            try (MappingIterator<Contact> contacts = reader.readValues(file)) {
+                return importContacts(() -> contacts, batchSize);
+            } catch (IOException | RuntimeJsonMappingException e) {
+                throw new RuntimeException("Error deserializing contacts from JSON: " + e.getMessage());
+            }
+        } finally {
+            Metrics.record("dao.deserializeFromJson", start);
+        }
+    }
+
+    /**
+     * Inserta los contactos en lotes, cada lote en su propia transacción.
+     * Los correos duplicados (ya existentes o repetidos en la entrada, también con otras mayúsculas o
+     * espacios) se omiten gracias a los índices únicos.
+     */
+    public ImportResult importContacts(Iterable<Contact> contacts, int batchSize) {
+        long start = Metrics.start();
+        try {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+            }
+            String sql = """
+                    INSERT INTO contacts (name, email, phone, contact_type, favorite, email_norm, phone_norm)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT DO NOTHING
+                    """;
+            int inserted = 0;
+            int skipped = 0;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                conn.setAutoCommit(false);
+                int pending = 0;
+                for (Contact contact : contacts) {
+                    if (contact.getEmail() == null || contact.getName() == null) {
+                        skipped++;
+                        continue;
+                    }
+                    pstmt.setString(1, contact.getName());
+                    pstmt.setString(2, contact.getEmail());
+                    pstmt.setString(3, contact.getPhone());
+                    pstmt.setString(4, contact.getContactType());
+                    pstmt.setBoolean(5, contact.isFavorite());
+                    bindNormalized(pstmt, 6, contact);
+                    pstmt.addBatch();
+                    if (++pending == batchSize) {
+                        int added = executeBatch(conn, pstmt);
+                        inserted += added;
+                        skipped += pending - added;
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    int added = executeBatch(conn, pstmt);
+                    inserted += added;
+                    skipped += pending - added;
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error importing contacts: " + e.getMessage());
+            } finally {
+                if (inserted > 0) {
+                    fireContactsReloaded();
+                }
+            }
+            return new ImportResult(inserted, skipped);
+        } finally {
+            Metrics.record("dao.importContacts", start);
+        }
+    }
+
+    private int executeBatch(Connection conn, PreparedStatement pstmt) throws SQLException {
+        int added = 0;
+        try {
+            for (int count : pstmt.executeBatch()) {
+                if (count > 0) {
+                    added += count;
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+        return added;
+    }
+
+    /**
+     * Versión de los datos: la última secuencia del registro de cambios. Cambia con cada
+     * modificación confirmada de la tabla de contactos.
+     */
+    public long getDataVersion() {
+        long start = Metrics.start();
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            return lastChangeSequence(stmt);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading data version: " + e.getMessage());
+        } finally {
+            Metrics.record("dao.getDataVersion", start);
+        }
+    }
+
+    private long lastChangeSequence(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'contact_changes'")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Escribe en JSON los contactos que cambiaron después de la secuencia {@code sinceSequence}.
+     * Cada contacto aparece una vez, con su estado actual ({@code upsert}) o como borrado
+     * ({@code delete}), así que el archivo es proporcional al número de contactos cambiados y
+     * aplicarlo dos veces deja el mismo resultado. La lectura se hace en una sola transacción.
+     * El archivo lleva el identificador de esta base de datos ({@code sourceId}) y se escribe en un
+     * temporal que solo sustituye a {@code file} cuando está completo.
+     */
+    public SyncResult exportChanges(long sinceSequence, File file) {
+        long start = Metrics.start();
+        try {
+            String sql = """
+                    SELECT ch.contact_id, ch.seq, ch.changed_at, c.id, c.name, c.email, c.phone, c.contact_type, c.favorite
+                    FROM (SELECT contact_id, MAX(seq) AS seq, MAX(changed_at) AS changed_at FROM contact_changes
+                          WHERE seq > ? AND seq <= ? GROUP BY contact_id) ch
+                    LEFT JOIN contacts c ON c.id = ch.contact_id
+                    ORDER BY ch.seq
+                    """;
+            JsonFactory factory = new ObjectMapper().getFactory();
+            File temp = new File(file.getPath() + ".tmp");
+            int upserted = 0;
+            int deleted = 0;
+            long toSequence;
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 PreparedStatement pstmt = conn.prepareStatement(sql);
+                 JsonGenerator generator = factory.createGenerator(temp, JsonEncoding.UTF8)) {
+                conn.setAutoCommit(false);
+                toSequence = Math.max(sinceSequence, lastChangeSequence(stmt));
+                pstmt.setLong(1, sinceSequence);
+                pstmt.setLong(2, toSequence);
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartObject();
+                generator.writeStringField("sourceId", syncInfo(conn, DATABASE_ID));
+                generator.writeNumberField("fromSequence", sinceSequence);
+                generator.writeNumberField("toSequence", toSequence);
+                generator.writeArrayFieldStart("changes");
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        boolean exists = rs.getObject(4) != null;
+                        generator.writeStartObject();
+                        generator.writeNumberField("seq", rs.getLong(2));
+                        generator.writeStringField("op", exists ? "upsert" : "delete");
+                        generator.writeNumberField("changedAt", rs.getLong(3));
+                        generator.writeNumberField("id", rs.getInt(1));
+                        if (exists) {
+                            generator.writeStringField("name", rs.getString(5));
+                            generator.writeStringField("email", rs.getString(6));
+                            generator.writeStringField("phone", rs.getString(7));
+                            generator.writeStringField("contactType", rs.getString(8));
+                            generator.writeBooleanField("favorite", rs.getBoolean(9));
+                            upserted++;
+                        } else {
+                            deleted++;
+                        }
+                        generator.writeEndObject();
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                conn.commit();
+            } catch (SQLException | IOException e) {
+                temp.delete();
+                throw new RuntimeException("Error exporting contact changes: " + e.getMessage());
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                temp.delete();
+                throw new RuntimeException("Error exporting contact changes: " + e.getMessage());
+            }
+            return new SyncResult(sinceSequence, toSequence, upserted, deleted, 0, 0);
+        } finally {
+            Metrics.record("dao.exportChanges", start);
+        }
+    }
+
+    /**
+     * Aplica un archivo de {@link #exportChanges} en una sola transacción. Esta base de datos pasa a ser
+     * una réplica de la que exportó el archivo: los contactos se insertan o actualizan por ID y los
+     * borrados se aplican por ID, así que los IDs de las dos bases de datos deben designar los mismos
+     * contactos. Por eso se rechaza el archivo (sin aplicar nada) si viene de otra base de datos que la
+     * que ya sigue esta, si deja un hueco respecto a los cambios ya aplicados o si esta base de datos
+     * empieza a seguir a otra sin estar vacía. Una réplica no debe editarse: sus contactos nuevos
+     * podrían tomar IDs que luego lleguen del origen.
+     *
+     * <p>Los cambios con secuencia ya aplicada se omiten y lo que ya coincide no se toca, de modo que
+     * repetir un archivo o aplicar uno anterior no cambia nada ni genera nuevas entradas en el registro. Los contactos que se intercambian el correo se aplican juntos.
+     * Un contacto cuyo correo sigue usando otro contacto de esta base de datos se omite y cuenta como
+     * conflicto.</p>
+     */
+    public SyncResult applyChanges(File file) {
+        long start = Metrics.start();
         try {
-            List<Contact> contacts = getAllContacts();
-            mapper.writeValue(file, contacts);
-        } catch (Exception e) {
-            throw new RuntimeException("Error serializing contacts to JSON: " + e.getMessage());
+            String deleteSql = "DELETE FROM contacts WHERE id = ?";
+            ObjectMapper mapper = new ObjectMapper();
+            String sourceId = null;
+            long fromSequence = 0;
+            long toSequence = 0;
+            int upserted = 0;
+            int deleted = 0;
+            int unchanged = 0;
+            int conflicts = 0;
+            boolean hasChanges = false;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement upsert = conn.prepareStatement(SYNC_UPSERT_SQL);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 JsonParser parser = mapper.getFactory().createParser(file)) {
+                beginImmediate(conn);
+                try {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        throw new IOException("Expected a change set object");
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        switch (field) {
+                            case "sourceId" -> sourceId = parser.getText();
+                            case "fromSequence" -> fromSequence = parser.getLongValue();
+                            case "toSequence" -> toSequence = parser.getLongValue();
+                            case "changes" -> {
+                                if (parser.currentToken() != JsonToken.START_ARRAY) {
+                                    throw new IOException("Expected an array of changes");
+                                }
+                                long applied = checkReplicaSource(conn, sourceId, fromSequence);
+                                hasChanges = true;
+                                // Los que chocan se reintentan al final: el otro contacto puede cambiar de correo más adelante
+                                List<JsonNode> blocked = new ArrayList<>();
+                                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                    JsonNode change = mapper.readTree(parser);
+                                    if (change.path("seq").asLong() <= applied) {
+                                        // Ya aplicado con este archivo o con uno posterior
+                                        unchanged++;
+                                        continue;
+                                    }
+                                    if ("delete".equals(change.path("op").asText())) {
+                                        delete.setInt(1, change.path("id").asInt());
+                                        if (delete.executeUpdate() > 0) {
+                                            deleted++;
+                                        } else {
+                                            unchanged++;
+                                        }
+                                        continue;
+                                    }
+                                    switch (applySyncUpsert(upsert, change)) {
+                                        case 1 -> upserted++;
+                                        case 0 -> unchanged++;
+                                        default -> blocked.add(change);
+                                    }
+                                }
+                                int unblocked = applyBlockedUpserts(conn, upsert, blocked);
+                                upserted += unblocked;
+                                conflicts += blocked.size() - unblocked;
+                            }
+                            default -> parser.skipChildren();
+                        }
+                    }
+                    if (!hasChanges) {
+                        throw new IOException("Change set has no changes array");
+                    }
+                    setSyncInfo(conn, SYNC_SOURCE_ID, sourceId);
+                    try (PreparedStatement mark = conn.prepareStatement("""
+                            INSERT INTO sync_marks (name, sequence) VALUES (?, ?)
+                            ON CONFLICT(name) DO UPDATE SET sequence = MAX(sequence, excluded.sequence)
+                            """)) {
+                        mark.setString(1, APPLIED_SYNC_MARK);
+                        mark.setLong(2, toSequence);
+                        mark.executeUpdate();
+                    }
+                    conn.commit();
+                } catch (SQLException | IOException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException | IOException e) {
+                throw new RuntimeException("Error applying contact changes: " + e.getMessage());
+            } finally {
+                if (upserted + deleted > 0) {
+                    fireContactsReloaded();
+                }
+            }
+            return new SyncResult(fromSequence, toSequence, upserted, deleted, unchanged, conflicts);
+        } finally {
+            Metrics.record("dao.applyChanges", start);
         }
     }
 
-    public void deserializeFromJson(File file) {
-        ObjectMapper mapper = new ObjectMapper();
+    // Un archivo de cambios solo se aplica sobre una réplica de su origen, sin huecos en la secuencia;
+    // devuelve la última secuencia ya aplicada. Sin origen registrado, la réplica empieza vacía y con
+    // el archivo completo (desde la secuencia 0)
+    private long checkReplicaSource(Connection conn, String sourceId, long fromSequence)
+            throws SQLException, IOException {
+        if (sourceId == null) {
+            throw new IOException("Change set has no source database id");
+        }
+        if (sourceId.equals(syncInfo(conn, DATABASE_ID))) {
+            throw new IOException("Change set was exported from this database");
+        }
+        String followed = syncInfo(conn, SYNC_SOURCE_ID);
+        if (followed == null) {
+            boolean empty;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT NOT EXISTS (SELECT 1 FROM contacts)")) {
+                empty = rs.next() && rs.getBoolean(1);
+            }
+            if (fromSequence != 0 || !empty) {
+                throw new IOException("Only an empty database can start replicating, from a full change set");
+            }
+            return 0;
+        }
+        if (!followed.equals(sourceId)) {
+            throw new IOException("Change set comes from database " + sourceId + ", this one replicates " + followed);
+        }
+        long applied;
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT sequence FROM sync_marks WHERE name = ?")) {
+            pstmt.setString(1, APPLIED_SYNC_MARK);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                applied = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        if (fromSequence > applied) {
+            throw new IOException("Change set starts at sequence " + fromSequence + " but only changes up to "
+                    + applied + " have been applied");
+        }
+        return applied;
+    }
+
+    // 1 si insertó o modificó el contacto, 0 si ya coincidía, -1 si su correo lo usa otro contacto
+    private static int applySyncUpsert(PreparedStatement upsert, JsonNode change) throws SQLException {
+        String email = change.path("email").textValue();
+        upsert.setInt(1, change.path("id").asInt());
+        upsert.setString(2, change.path("name").textValue());
+        upsert.setString(3, email);
+        upsert.setString(4, change.path("phone").textValue());
+        upsert.setString(5, change.path("contactType").textValue());
+        upsert.setBoolean(6, change.path("favorite").asBoolean());
+        upsert.setString(7, normalizedEmail(email));
+        upsert.setString(8, ContactNormalizer.phone(change.path("phone").textValue()));
         try {
-            Contact[] contacts = mapper.readValue(file, Contact[].class);
-            for (Contact contact : contacts) {
-                contact.setId(0); // Reset ID to let SQLite assign new IDs
-                if (!emailExists(contact.getEmail(), 0)) {
-                    saveContact(contact);
+            return upsert.executeUpdate() > 0 ? 1 : 0;
+        } catch (SQLException e) {
+            // Solo se descarta esta sentencia; la transacción sigue
+            if (e.getErrorCode() != SQLiteErrorCode.SQLITE_CONSTRAINT.code) {
+                throw e;
+            }
+            return -1;
+        }
+    }
+
+    // Reintenta los contactos cuyo correo estaba ocupado y devuelve cuántos se aplicaron; en blocked
+    // quedan también los que siguen en conflicto. Primero se repiten mientras alguno avance. Los que
+    // forman ciclos (dos contactos que se intercambian el correo) solo avanzan juntos: se les quita el
+    // correo a todos dentro de un savepoint y se aplican de nuevo. Si alguno falla, su correo lo usa un
+    // contacto que no cambia: se deshace el savepoint y se repite sin él, hasta que no falle ninguno
+    private int applyBlockedUpserts(Connection conn, PreparedStatement upsert, List<JsonNode> blocked)
+            throws SQLException {
+        List<JsonNode> pending = new ArrayList<>(blocked);
+        int applied = 0;
+        boolean progress = true;
+        while (progress && !pending.isEmpty()) {
+            progress = false;
+            for (Iterator<JsonNode> it = pending.iterator(); it.hasNext(); ) {
+                if (applySyncUpsert(upsert, it.next()) >= 0) {
+                    it.remove();
+                    applied++;
+                    progress = true;
                 }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Error deserializing contacts from JSON: " + e.getMessage());
         }
+        try (PreparedStatement release = conn.prepareStatement(
+                "UPDATE contacts SET email = ?, email_norm = ? WHERE id = ?")) {
+            while (!pending.isEmpty()) {
+                Savepoint savepoint = conn.setSavepoint();
+                for (JsonNode change : pending) {
+                    // Sin '@' no coincide con ningún correo válido
+                    String placeholder = "sync:" + change.path("id").asInt();
+                    release.setString(1, placeholder);
+                    release.setString(2, placeholder);
+                    release.setInt(3, change.path("id").asInt());
+                    release.addBatch();
+                }
+                release.executeBatch();
+                List<JsonNode> failed = new ArrayList<>();
+                for (JsonNode change : pending) {
+                    if (applySyncUpsert(upsert, change) < 0) {
+                        failed.add(change);
+                    }
+                }
+                if (failed.isEmpty()) {
+                    conn.releaseSavepoint(savepoint);
+                    applied += pending.size();
+                    break;
+                }
+                conn.rollback(savepoint);
+                pending.removeAll(failed);
+            }
+        }
+        return applied;
+    }
+
+    private static String syncInfo(Connection conn, String name) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT value FROM sync_info WHERE name = ?")) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void setSyncInfo(Connection conn, String name, String value) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("""
+                INSERT INTO sync_info (name, value) VALUES (?, ?)
+                ON CONFLICT(name) DO UPDATE SET value = excluded.value
+                """)) {
+            pstmt.setString(1, name);
+            pstmt.setString(2, value);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Secuencia guardada con ese nombre (por ejemplo, la de la última exportación incremental), o 0.
+     */
+    public long getSyncMark(String name) {
+        long start = Metrics.start();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT sequence FROM sync_marks WHERE name = ?")) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading sync mark: " + e.getMessage());
+        } finally {
+            Metrics.record("dao.getSyncMark", start);
+        }
+    }
+
+    public void setSyncMark(String name, long sequence) {
+        long start = Metrics.start();
+        String sql = """
+                INSERT INTO sync_marks (name, sequence) VALUES (?, ?)
+                ON CONFLICT(name) DO UPDATE SET sequence = excluded.sequence
+                """;
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, name);
+            pstmt.setLong(2, sequence);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving sync mark: " + e.getMessage());
+        } finally {
+            Metrics.record("dao.setSyncMark", start);
+        }
+    }
+
+    public StorageProfile getStorageProfile() {
+        return profile;
+    }
+
+    public void addChangeListener(ContactChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ContactChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireContactsReloaded() {
+        for (ContactChangeListener listener : listeners) {
+            listener.contactsReloaded();
+        }
+    }
+
+    // Escribe email_norm y phone_norm en los parámetros index e index + 1
+    private static void bindNormalized(PreparedStatement pstmt, int index, Contact contact) throws SQLException {
+        pstmt.setString(index, normalizedEmail(contact.getEmail()));
+        pstmt.setString(index + 1, ContactNormalizer.phone(contact.getPhone()));
+    }
+
+    // Nunca NULL si hay correo: NULL en email_norm significa "pendiente de migrar"
+    private static String normalizedEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalized = ContactNormalizer.email(email);
+        return normalized == null ? "" : normalized;
+    }
+
+    private Contact mapContact(ResultSet rs) throws SQLException {
+        return new Contact(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("contact_type"),
+                rs.getBoolean("favorite")
+        );
+    }
+
+    @Override
+    public void close() {
+        pool.close();
     }
-}
\ No newline at end of file
+}
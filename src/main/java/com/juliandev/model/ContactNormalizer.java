@@ -0,0 +1,81 @@
+package com.juliandev.model;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Formas canónicas de los campos de un contacto para compararlos: dos valores que se escriben
+ * distinto pero identifican lo mismo ("Ana@Mail.com " y "ana@mail.com", "+34 600 11 22 33" y
+ * "0034600112233") tienen la misma forma normalizada.
+ */
+public final class ContactNormalizer {
+    // Menos dígitos que esto no identifican un teléfono (extensiones, códigos sueltos)
+    private static final int MIN_PHONE_DIGITS = 7;
+
+    private ContactNormalizer() {}
+
+    /**
+     * Correo sin espacios alrededor y en minúsculas, o {@code null} si está vacío.
+     */
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        String trimmed = email.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Teléfono al estilo E.164: solo dígitos, con un {@code +} delante si el número lleva prefijo
+     * internacional ({@code +} o {@code 00}). Devuelve {@code null} si tiene menos de 7 dígitos.
+     * Sin prefijo no se puede deducir el país, así que el número se queda como está.
+     */
+    public static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length() + 1);
+        boolean international = false;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '+' && digits.isEmpty()) {
+                international = true;
+            }
+        }
+        if (!international && digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            digits.delete(0, 2);
+            international = true;
+        }
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            return null;
+        }
+        return international ? digits.insert(0, '+').toString() : digits.toString();
+    }
+
+    /**
+     * Palabras del nombre en minúsculas, sin acentos ni signos, ordenadas y separadas por un espacio:
+     * "Garcia, José" y "José García" dan "garcia jose". Devuelve {@code null} si no queda ninguna.
+     */
+    public static String name(String name) {
+        if (name == null) {
+            return null;
+        }
+        String[] words = Normalizer.normalize(name.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .split("[^\\p{L}\\p{N}]+");
+        Arrays.sort(words);
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                if (!normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(word);
+            }
+        }
+        return normalized.isEmpty() ? null : normalized.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.juliandev.model;
+
+/**
+ * Filtro y orden de un listado de contactos para {@link ContactDAO#queryContacts}.
+ * Los filtros nulos no se aplican. El ID desempata siempre el orden, de modo que cada fila
+ * tiene una clave única para la paginación por clave.
+ */
+public class ContactQuery {
+
+    public enum SortColumn {
+        ID("id"),
+        NAME("name"),
+        EMAIL("email"),
+        // Columnas que admiten NULL: se ordenan como cadena vacía para que la comparación por clave funcione
+        PHONE("IFNULL(phone, '')"),
+        CONTACT_TYPE("IFNULL(contact_type, '')"),
+        FAVORITE("favorite");
+
+        private final String expression;
+
+        SortColumn(String expression) {
+            this.expression = expression;
+        }
+
+        String expression() {
+            return expression;
+        }
+
+        /**
+         * Columna de orden correspondiente a una columna de la tabla (ID, nombre, correo, teléfono, tipo, favorito).
+         */
+        public static SortColumn forTableColumn(int column) {
+            return values()[column];
+        }
+    }
+
+    private final SortColumn sortColumn;
+    private final boolean ascending;
+    private final String contactType;
+    private final Boolean favorite;
+
+    public ContactQuery(SortColumn sortColumn, boolean ascending, String contactType, Boolean favorite) {
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+        this.contactType = contactType;
+        this.favorite = favorite;
+    }
+
+    /**
+     * Todos los contactos por ID ascendente.
+     */
+    public static ContactQuery all() {
+        return new ContactQuery(SortColumn.ID, true, null, null);
+    }
+
+    public ContactQuery sortedBy(SortColumn sortColumn, boolean ascending) {
+        return new ContactQuery(sortColumn, ascending, contactType, favorite);
+    }
+
+    public SortColumn getSortColumn() { return sortColumn; }
+    public boolean isAscending() { return ascending; }
+    public String getContactType() { return contactType; }
+    public Boolean getFavorite() { return favorite; }
+
+    /**
+     * Columna por la que se ordena realmente: si la columna de orden también se filtra por un valor
+     * fijo, todas las filas comparten clave y el orden queda en manos del ID.
+     */
+    public SortColumn getEffectiveSortColumn() {
+        if ((sortColumn == SortColumn.CONTACT_TYPE && contactType != null)
+                || (sortColumn == SortColumn.FAVORITE && favorite != null)) {
+            return SortColumn.ID;
+        }
+        return sortColumn;
+    }
+
+    /**
+     * Indica si las filas salen en orden de ID ascendente.
+     */
+    public boolean isIdOrder() {
+        return getEffectiveSortColumn() == SortColumn.ID && ascending;
+    }
+
+    @Override
+    public String toString() {
+        return "ContactQuery{sort=" + sortColumn + (ascending ? " ASC" : " DESC") + ", contactType=" + contactType
+                + ", favorite=" + favorite + "}";
+    }
+}
@@ -0,0 +1,14 @@
+package com.juliandev.model;
+
+import java.io.IOException;
+
+/**
+ * Recibe las filas de {@link ContactDAO#scanContactRows} sin crear objetos {@link Contact}:
+ * los campos de texto llegan como bytes UTF-8 tal como los guarda SQLite ({@code null} si no hay valor).
+ * Los arreglos solo son válidos durante la llamada.
+ */
+@FunctionalInterface
+public interface ContactRowVisitor {
+    void visit(int id, byte[] name, byte[] email, byte[] phone, byte[] contactType, boolean favorite)
+            throws IOException;
+}
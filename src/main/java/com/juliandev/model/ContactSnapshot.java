@@ -0,0 +1,445 @@
+package com.juliandev.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Copia binaria de la tabla de contactos en un archivo junto a la base de datos, que se proyecta
+ * en memoria ({@code mmap}) al arrancar para mostrar la primera pantalla sin esperar a SQLite.
+ * Las columnas se guardan con el mismo formato que {@link ContactStore} y se leen directamente
+ * del archivo: abrirla no decodifica ninguna fila.
+ *
+ * <p>Formato (big-endian): una cabecera de {@value #HEADER_SIZE} bytes con número mágico, versión
+ * del formato, versión de los datos ({@link ContactDAO#getDataVersion()}), número de filas, tamaño
+ * y CRC32C del cuerpo y CRC32C de la propia cabecera; después las secciones IDs, favoritos, códigos
+ * de tipo, diccionario de tipos, tipos fuera del diccionario y las columnas nombre, correo y
+ * teléfono (bits de nulos, desplazamientos y bytes UTF-8).</p>
+ *
+ * <p>La copia se da por buena solo si su versión de datos coincide con la de la base de datos;
+ * si no, se vuelve a generar. Cada escritura crea una generación nueva
+ * ({@code <ruta de la base>.snapshot.<n>}) a partir de un archivo temporal que se renombra de forma
+ * atómica, así que un lector nunca ve un archivo a medias y nunca se sustituye un archivo que alguien
+ * tiene proyectado (Windows no lo permite). Las generaciones anteriores se borran cuando se puede.</p>
+ */
+public class ContactSnapshot {
+    private static final int MAGIC = 0x434D5353;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_CHECKED_BYTES = 40;
+    private static final int NULL_TYPE = 0;
+    private static final int OVERFLOW_TYPE = 255;
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final long dataVersion;
+    private final int rows;
+    private final long bodyChecksum;
+    // Posiciones absolutas de cada sección dentro del archivo
+    private final int idsPosition;
+    private final int favoritesPosition;
+    private final int typeCodesPosition;
+    private final String[] typeDictionary;
+    private final Map<Integer, String> overflowTypes;
+    private final Column names;
+    private final Column emails;
+    private final Column phones;
+
+    private ContactSnapshot(File file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a contact snapshot: " + file);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format " + buffer.getInt(4) + ": " + file);
+        }
+        CRC32C headerCrc = new CRC32C();
+        headerCrc.update(buffer.slice(0, HEADER_CHECKED_BYTES));
+        if ((int) headerCrc.getValue() != buffer.getInt(HEADER_CHECKED_BYTES)) {
+            throw new IOException("Corrupt snapshot header: " + file);
+        }
+        dataVersion = buffer.getLong(8);
+        rows = buffer.getInt(16);
+        int typeCount = buffer.getInt(20);
+        long bodyLength = buffer.getLong(24);
+        bodyChecksum = buffer.getLong(32);
+        if (rows < 0 || rows > bodyLength / 4 || typeCount < 1 || typeCount > OVERFLOW_TYPE || bodyLength != buffer.capacity() - HEADER_SIZE) {
+            throw new IOException("Corrupt snapshot header: " + file);
+        }
+        try {
+            int position = HEADER_SIZE;
+            idsPosition = position;
+            position += rows * 4;
+            favoritesPosition = position;
+            position += words(rows) * 8;
+            typeCodesPosition = position;
+            position += rows;
+            typeDictionary = new String[typeCount];
+            for (int code = 1; code < typeCount; code++) {
+                int length = buffer.getInt(position);
+                typeDictionary[code] = utf8(position + 4, length);
+                position += 4 + length;
+            }
+            int overflowCount = buffer.getInt(position);
+            position += 4;
+            overflowTypes = new HashMap<>();
+            for (int i = 0; i < overflowCount; i++) {
+                int row = buffer.getInt(position);
+                int length = buffer.getInt(position + 4);
+                overflowTypes.put(row, utf8(position + 8, length));
+                position += 8 + length;
+            }
+            names = new Column(position);
+            emails = new Column(names.end);
+            phones = new Column(emails.end);
+            if (phones.end != buffer.capacity()) {
+                throw new IOException("Corrupt snapshot layout: " + file);
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt snapshot layout: " + file, e);
+        }
+    }
+
+    /**
+     * Archivos de copia de la base de datos del perfil, de la generación más reciente a la más antigua.
+     */
+    public static List<File> filesFor(StorageProfile profile) {
+        File base = baseFor(profile);
+        File[] candidates = directoryOf(base).listFiles();
+        List<File> files = new ArrayList<>();
+        if (candidates != null) {
+            for (File candidate : candidates) {
+                if (generation(base, candidate) > 0) {
+                    files.add(candidate);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong((File file) -> generation(base, file)).reversed());
+        return files;
+    }
+
+    // Prefijo común de las copias: <ruta de la base>.snapshot
+    private static File baseFor(StorageProfile profile) {
+        return new File(profile.getDbPath() + ".snapshot").getAbsoluteFile();
+    }
+
+    private static File directoryOf(File base) {
+        File directory = base.getParentFile();
+        return directory != null ? directory : new File(".");
+    }
+
+    // Número de generación de una copia (<base>.<n>), o -1 si el archivo no es una
+    private static long generation(File base, File file) {
+        String prefix = base.getName() + ".";
+        String name = file.getName();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return -1;
+        }
+        long generation = 0;
+        for (int i = prefix.length(); i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9' || generation > (Long.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            generation = generation * 10 + (c - '0');
+        }
+        return generation;
+    }
+
+    /**
+     * Proyecta la copia en memoria y comprueba la cabecera y la suma de verificación del cuerpo.
+     */
+    public static ContactSnapshot open(File file) throws IOException {
+        ContactSnapshot snapshot = openUnverified(file);
+        if (!snapshot.verifyChecksum()) {
+            throw new IOException("Snapshot checksum mismatch: " + file);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Proyecta la copia en memoria comprobando solo la cabecera; el cuerpo puede verificarse
+     * después con {@link #verifyChecksum()}.
+     */
+    public static ContactSnapshot openUnverified(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot exceeds 2 GB: " + file);
+            }
+            // La proyección sigue siendo válida después de cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ContactSnapshot(file, buffer);
+        }
+    }
+
+    /**
+     * Genera una copia nueva de todos los contactos del DAO y devuelve su archivo. La versión se lee
+     * antes de recorrer la tabla: si alguien escribe durante el recorrido, la copia queda marcada como
+     * antigua y se rehará.
+     */
+    public static File write(ContactDAO dao) throws IOException {
+        long version = dao.getDataVersion();
+        return write(ContactStore.load(dao), version, dao.getStorageProfile());
+    }
+
+    /**
+     * Escribe la copia como una generación nueva, sin tocar las que puedan estar proyectadas,
+     * y después intenta borrar las anteriores. No la proyecta: para leerla, {@link #open(File)}.
+     */
+    public static File write(ContactStore store, long dataVersion, StorageProfile profile) throws IOException {
+        File base = baseFor(profile);
+        List<File> previous = filesFor(profile);
+        long generation = previous.isEmpty() ? 1 : generation(base, previous.get(0)) + 1;
+        File file = new File(base.getPath() + "." + generation);
+        File temp = new File(base.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int rows = store.size();
+            SectionWriter out = new SectionWriter(channel);
+            for (int row = 0; row < rows; row++) {
+                out.putInt(store.ids[row]);
+            }
+            out.putBits(store.favorites.toLongArray(), rows);
+            out.put(store.typeCodes, 0, rows);
+            for (int code = 1; code < store.typeCount; code++) {
+                out.putInt(store.typeDictionaryBytes[code].length);
+                out.put(store.typeDictionaryBytes[code], 0, store.typeDictionaryBytes[code].length);
+            }
+            out.putInt(store.overflowTypes.size());
+            for (Map.Entry<Integer, String> entry : store.overflowTypes.entrySet()) {
+                byte[] type = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                out.putInt(entry.getKey());
+                out.putInt(type.length);
+                out.put(type, 0, type.length);
+            }
+            for (ContactStore.Utf8Column column : List.of(store.names, store.emails, store.phones)) {
+                out.putBits(column.nulls.toLongArray(), rows);
+                for (int row = 0; row <= rows; row++) {
+                    out.putInt(column.offsets[row]);
+                }
+                out.putInt(column.offsets[rows]);
+                out.put(column.data, 0, column.offsets[rows]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(dataVersion).putInt(rows)
+                    .putInt(store.typeCount).putLong(out.length).putLong(out.crc.getValue());
+            CRC32C headerCrc = new CRC32C();
+            headerCrc.update(header.array(), 0, HEADER_CHECKED_BYTES);
+            header.putInt((int) headerCrc.getValue()).clear();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        // Una generación que sigue proyectada no se puede borrar en Windows: se reintenta en la próxima escritura
+        for (File old : previous) {
+            try {
+                Files.deleteIfExists(old.toPath());
+            } catch (IOException e) {
+                // Se queda para la próxima vez
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Recalcula el CRC32C del cuerpo y lo compara con el de la cabecera.
+     */
+    public boolean verifyChecksum() {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        return crc.getValue() == bodyChecksum;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * IDs de todas las filas en orden ascendente.
+     */
+    public int[] getIds() {
+        int[] ids = new int[rows];
+        buffer.slice(idsPosition, rows * 4).asIntBuffer().get(ids);
+        return ids;
+    }
+
+    /**
+     * Fila del contacto con ese ID, o -1 si no está.
+     */
+    public int indexOf(int id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(idsPosition + mid * 4);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public Contact getContact(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + rows);
+        }
+        boolean favorite = (buffer.getLong(favoritesPosition + (row >>> 6) * 8) & (1L << row)) != 0;
+        return new Contact(buffer.getInt(idsPosition + row * 4), names.get(row), emails.get(row),
+                phones.get(row), contactType(row), favorite);
+    }
+
+    /**
+     * Contactos con esos IDs, en el mismo orden; los IDs que no están se omiten.
+     */
+    public List<Contact> getContactsByIds(int[] ids) {
+        List<Contact> contacts = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            int row = indexOf(id);
+            if (row >= 0) {
+                contacts.add(getContact(row));
+            }
+        }
+        return contacts;
+    }
+
+    private String contactType(int row) {
+        int code = buffer.get(typeCodesPosition + row) & 0xFF;
+        if (code == OVERFLOW_TYPE) {
+            return overflowTypes.get(row);
+        }
+        return code == NULL_TYPE || code >= typeDictionary.length ? null : typeDictionary[code];
+    }
+
+    private String utf8(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    @Override
+    public String toString() {
+        return "ContactSnapshot{file=" + file + ", dataVersion=" + dataVersion + ", rows=" + rows
+                + ", bytes=" + buffer.capacity() + "}";
+    }
+
+    /**
+     * Columna de texto dentro del archivo: bits de nulos, {@code rows + 1} desplazamientos,
+     * longitud de los datos y los bytes UTF-8.
+     */
+    private final class Column {
+        private final int nullsPosition;
+        private final int offsetsPosition;
+        private final int dataPosition;
+        private final int end;
+
+        Column(int position) {
+            nullsPosition = position;
+            offsetsPosition = nullsPosition + words(rows) * 8;
+            int dataLength = buffer.getInt(offsetsPosition + (rows + 1) * 4);
+            dataPosition = offsetsPosition + (rows + 1) * 4 + 4;
+            if (dataLength < 0 || dataLength != buffer.getInt(offsetsPosition + rows * 4)) {
+                throw new IllegalArgumentException("Corrupt snapshot column");
+            }
+            end = dataPosition + dataLength;
+        }
+
+        String get(int row) {
+            if ((buffer.getLong(nullsPosition + (row >>> 6) * 8) & (1L << row)) != 0) {
+                return null;
+            }
+            int start = buffer.getInt(offsetsPosition + row * 4);
+            return utf8(dataPosition + start, buffer.getInt(offsetsPosition + (row + 1) * 4) - start);
+        }
+    }
+
+    /**
+     * Escritura del cuerpo por bloques, detrás del hueco de la cabecera, calculando el CRC32C a la vez.
+     */
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer chunk = ByteBuffer.allocate(1 << 20);
+        private final CRC32C crc = new CRC32C();
+        private long length;
+
+        SectionWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_SIZE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            chunk.putInt(value);
+        }
+
+        void put(byte[] bytes, int offset, int count) throws IOException {
+            while (count > 0) {
+                ensure(1);
+                int n = Math.min(count, chunk.remaining());
+                chunk.put(bytes, offset, n);
+                offset += n;
+                count -= n;
+            }
+        }
+
+        // Escribe exactamente las palabras necesarias para {@code bits} bits, completando con ceros
+        void putBits(long[] words, int bits) throws IOException {
+            int count = words(bits);
+            for (int i = 0; i < count; i++) {
+                ensure(8);
+                chunk.putLong(i < words.length ? words[i] : 0L);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (chunk.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            chunk.flip();
+            crc.update(chunk.array(), 0, chunk.limit());
+            length += chunk.limit();
+            if (HEADER_SIZE + length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot exceeds 2 GB");
+            }
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            chunk.clear();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.juliandev.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copia en memoria de la tabla de contactos organizada por columnas, sin un objeto por contacto:
+ * IDs en un {@code int[]} ordenado, favoritos en un {@link BitSet}, el tipo codificado en un byte
+ * contra un diccionario y nombre, correo y teléfono como UTF-8 en arenas de bytes compartidas
+ * con arreglos de desplazamientos.
+ *
+ * <p>Las filas se añaden en orden de ID creciente y después el almacén solo se lee. Se consulta
+ * por número de fila con los getters, con un {@link Row} reutilizable o materializando un
+ * {@link Contact} cuando hace falta.</p>
+ */
+public class ContactStore {
+    // Código de tipo reservado para null; el 255 indica un tipo fuera del diccionario
+    private static final int NULL_TYPE = 0;
+    private static final int OVERFLOW_TYPE = 255;
+
+    // Visibles en el paquete para que ContactSnapshot escriba las columnas tal cual
+    int[] ids;
+    final BitSet favorites = new BitSet();
+    byte[] typeCodes;
+    private String[] typeDictionary = new String[16];
+    byte[][] typeDictionaryBytes = new byte[16][];
+    int typeCount = 1;
+    // Tipos que no caben en el diccionario, por fila
+    final Map<Integer, String> overflowTypes = new HashMap<>();
+    final Utf8Column names;
+    final Utf8Column emails;
+    final Utf8Column phones;
+    private int size;
+
+    public ContactStore(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ids = new int[capacity];
+        typeCodes = new byte[capacity];
+        names = new Utf8Column(capacity, capacity * 16);
+        emails = new Utf8Column(capacity, capacity * 24);
+        phones = new Utf8Column(capacity, capacity * 12);
+    }
+
+    /**
+     * Carga todos los contactos del DAO en un único recorrido, copiando los bytes UTF-8 sin decodificarlos.
+     */
+    public static ContactStore load(ContactDAO dao) {
+        int[] bounds = dao.getIdBounds();
+        if (bounds == null) {
+            return new ContactStore(16);
+        }
+        // El rango de IDs acota el número de filas; si hay muchos huecos, los arreglos crecen al cargar
+        ContactStore store = new ContactStore((int) Math.min(1 << 20, (long) bounds[1] - bounds[0] + 1));
+        try {
+            dao.scanContactRows(bounds[0], bounds[1] + 1, store::add);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading contact store: " + e.getMessage());
+        }
+        store.trimToSize();
+        return store;
+    }
+
+    /**
+     * Añade una fila; los campos de texto son UTF-8 ({@code null} si no hay valor) y se copian.
+     */
+    public void add(int id, byte[] name, byte[] email, byte[] phone, byte[] contactType, boolean favorite) {
+        if (size > 0 && id <= ids[size - 1]) {
+            throw new IllegalArgumentException("Contact ids must be added in increasing order: " + id);
+        }
+        if (size == ids.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+        }
+        ids[size] = id;
+        typeCodes[size] = encodeType(contactType);
+        favorites.set(size, favorite);
+        names.add(name);
+        emails.add(email);
+        phones.add(phone);
+        size++;
+    }
+
+    public void add(Contact contact) {
+        add(contact.getId(), utf8(contact.getName()), utf8(contact.getEmail()), utf8(contact.getPhone()),
+                utf8(contact.getContactType()), contact.isFavorite());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fila del contacto con ese ID, o -1 si no está.
+     */
+    public int indexOf(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return Math.max(index, -1);
+    }
+
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public String getName(int row) {
+        checkRow(row);
+        return names.get(row);
+    }
+
+    public String getEmail(int row) {
+        checkRow(row);
+        return emails.get(row);
+    }
+
+    public String getPhone(int row) {
+        checkRow(row);
+        return phones.get(row);
+    }
+
+    public String getContactType(int row) {
+        checkRow(row);
+        int code = typeCodes[row] & 0xFF;
+        return code == OVERFLOW_TYPE ? overflowTypes.get(row) : typeDictionary[code];
+    }
+
+    public boolean isFavorite(int row) {
+        checkRow(row);
+        return favorites.get(row);
+    }
+
+    public Contact getContact(int row) {
+        return new Contact(getId(row), getName(row), getEmail(row), getPhone(row), getContactType(row), isFavorite(row));
+    }
+
+    /**
+     * Vista reutilizable sobre una fila; moverla no crea objetos.
+     */
+    public Row row() {
+        return new Row();
+    }
+
+    /**
+     * Memoria retenida por el almacén, en bytes (arreglos y cabeceras, sin contar el diccionario).
+     */
+    public long estimateMemoryBytes() {
+        return 16 + (long) ids.length * 4 + typeCodes.length + favorites.size() / 8
+                + names.memoryBytes() + emails.memoryBytes() + phones.memoryBytes()
+                + overflowTypes.size() * 64L;
+    }
+
+    /**
+     * Ajusta los arreglos al número de filas para no retener capacidad sobrante.
+     */
+    public void trimToSize() {
+        ids = Arrays.copyOf(ids, size);
+        typeCodes = Arrays.copyOf(typeCodes, size);
+        names.trimToSize(size);
+        emails.trimToSize(size);
+        phones.trimToSize(size);
+    }
+
+    private byte encodeType(byte[] contactType) {
+        if (contactType == null) {
+            return NULL_TYPE;
+        }
+        for (int code = 1; code < typeCount; code++) {
+            if (Arrays.equals(typeDictionaryBytes[code], contactType)) {
+                return (byte) code;
+            }
+        }
+        String type = new String(contactType, StandardCharsets.UTF_8);
+        if (typeCount == OVERFLOW_TYPE) {
+            overflowTypes.put(size, type);
+            return (byte) OVERFLOW_TYPE;
+        }
+        if (typeCount == typeDictionary.length) {
+            typeDictionary = Arrays.copyOf(typeDictionary, typeCount * 2);
+            typeDictionaryBytes = Arrays.copyOf(typeDictionaryBytes, typeCount * 2);
+        }
+        typeDictionary[typeCount] = type;
+        typeDictionaryBytes[typeCount] = contactType.clone();
+        return (byte) typeCount++;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cursor sobre las filas del almacén.
+     */
+    public final class Row {
+        private int row = -1;
+
+        private Row() {}
+
+        public Row moveTo(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        public int getIndex() { return row; }
+        public int getId() { return ids[row]; }
+        public String getName() { return names.get(row); }
+        public String getEmail() { return emails.get(row); }
+        public String getPhone() { return phones.get(row); }
+        public String getContactType() { return ContactStore.this.getContactType(row); }
+        public boolean isFavorite() { return favorites.get(row); }
+        public Contact toContact() { return getContact(row); }
+    }
+
+    /**
+     * Columna de texto: los valores UTF-8 seguidos en un solo arreglo y el inicio de cada uno
+     * en {@code offsets}; la fila {@code i} ocupa {@code [offsets[i], offsets[i + 1])}.
+     */
+    static final class Utf8Column {
+        byte[] data;
+        int[] offsets;
+        final BitSet nulls = new BitSet();
+        int size;
+
+        Utf8Column(int rows, int bytes) {
+            data = new byte[Math.max(64, bytes)];
+            offsets = new int[rows + 1];
+        }
+
+        void add(byte[] value) {
+            int start = offsets[size];
+            int length = value == null ? 0 : value.length;
+            if ((long) start + length > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Contact store column exceeds 2 GB");
+            }
+            if (start + length > data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max((long) start + length, (long) data.length + (data.length >> 1))));
+            }
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length + (offsets.length >> 1) + 1);
+            }
+            if (value == null) {
+                nulls.set(size);
+            } else {
+                System.arraycopy(value, 0, data, start, length);
+            }
+            offsets[++size] = start + length;
+        }
+
+        String get(int row) {
+            if (nulls.get(row)) {
+                return null;
+            }
+            int start = offsets[row];
+            return new String(data, start, offsets[row + 1] - start, StandardCharsets.UTF_8);
+        }
+
+        void trimToSize(int rows) {
+            offsets = Arrays.copyOf(offsets, rows + 1);
+            data = Arrays.copyOf(data, offsets[rows]);
+        }
+
+        long memoryBytes() {
+            return 16 + data.length + 16 + (long) offsets.length * 4 + nulls.size() / 8;
+        }
+    }
+}
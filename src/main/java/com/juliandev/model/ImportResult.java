@@ -0,0 +1,19 @@
+package com.juliandev.model;
+
+public class ImportResult {
+    private final int inserted;
+    private final int skipped;
+
+    public ImportResult(int inserted, int skipped) {
+        this.inserted = inserted;
+        this.skipped = skipped;
+    }
+
+    public int getInserted() { return inserted; }
+    public int getSkipped() { return skipped; }
+
+    @Override
+    public String toString() {
+        return "ImportResult{inserted=" + inserted + ", skipped=" + skipped + "}";
+    }
+}
@@ -0,0 +1,138 @@
+package com.juliandev.model;
+
+import org.sqlite.SQLiteConfig;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configuración de almacenamiento de la base de datos: ruta del archivo, pragmas de SQLite
+ * y tamaño del pool de conexiones.
+ *
+ * <p>Se parte de un perfil predefinido ({@code contacts.storage.profile}: {@code legacy},
+ * {@code durable}, {@code balanced} o {@code fast}) y cada valor puede sobrescribirse desde
+ * {@code contacts.properties} (o el archivo indicado en {@code contacts.config}) y después
+ * desde las propiedades del sistema con las mismas claves.</p>
+ */
+public class StorageProfile {
+    public static final String CONFIG_FILE = "contacts.properties";
+
+    private String name;
+    private String dbPath = "contacts.db";
+    private String journalMode;
+    private String synchronous;
+    private int cacheSize;
+    private long mmapSize;
+    private String tempStore;
+    private int busyTimeout;
+    private int poolSize = 4;
+
+    private StorageProfile() {}
+
+    /**
+     * Devuelve uno de los perfiles predefinidos.
+     */
+    public static StorageProfile named(String name) {
+        StorageProfile profile = new StorageProfile();
+        profile.name = name.toLowerCase(Locale.ROOT);
+        switch (profile.name) {
+            // Valores por defecto de SQLite: diario de reversión y fsync en cada commit
+            case "legacy" -> profile.apply("DELETE", "FULL", -2000, 0, "DEFAULT", 3000);
+            // WAL sin relajar la durabilidad
+            case "durable" -> profile.apply("WAL", "FULL", -16000, 0, "DEFAULT", 5000);
+            // WAL con fsync solo en los checkpoints: seguro ante caídas del proceso
+            case "balanced" -> profile.apply("WAL", "NORMAL", -16000, 268_435_456L, "MEMORY", 5000);
+            // Sin fsync: solo para importaciones masivas o pruebas
+            case "fast" -> profile.apply("WAL", "OFF", -65536, 1_073_741_824L, "MEMORY", 5000);
+            default -> throw new IllegalArgumentException("Unknown storage profile: " + name);
+        }
+        return profile;
+    }
+
+    /**
+     * Carga el perfil configurado desde el archivo de propiedades y las propiedades del sistema.
+     */
+    public static StorageProfile load() {
+        Properties properties = new Properties();
+        File file = new File(System.getProperty("contacts.config", CONFIG_FILE));
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Error reading " + file + ": " + e.getMessage());
+            }
+        }
+        properties.putAll(System.getProperties());
+        return fromProperties(properties);
+    }
+
+    public static StorageProfile fromProperties(Properties properties) {
+        StorageProfile profile = named(properties.getProperty("contacts.storage.profile", "balanced"));
+        profile.dbPath = properties.getProperty("contacts.db.path", profile.dbPath);
+        profile.journalMode = properties.getProperty("contacts.journal.mode", profile.journalMode);
+        profile.synchronous = properties.getProperty("contacts.synchronous", profile.synchronous);
+        profile.cacheSize = Integer.parseInt(properties.getProperty("contacts.cache.size", String.valueOf(profile.cacheSize)));
+        profile.mmapSize = Long.parseLong(properties.getProperty("contacts.mmap.size", String.valueOf(profile.mmapSize)));
+        profile.tempStore = properties.getProperty("contacts.temp.store", profile.tempStore);
+        profile.busyTimeout = Integer.parseInt(properties.getProperty("contacts.busy.timeout", String.valueOf(profile.busyTimeout)));
+        profile.poolSize = Integer.parseInt(properties.getProperty("contacts.pool.size", String.valueOf(profile.poolSize)));
+        return profile;
+    }
+
+    private void apply(String journalMode, String synchronous, int cacheSize, long mmapSize, String tempStore,
+                       int busyTimeout) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeout = busyTimeout;
+    }
+
+    public String getJdbcUrl() {
+        return "jdbc:sqlite:" + dbPath;
+    }
+
+    /**
+     * Propiedades de conexión del driver: los pragmas se aplican al abrir cada conexión.
+     */
+    public Properties toConnectionProperties() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.valueOf(journalMode.toUpperCase(Locale.ROOT)));
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous.toUpperCase(Locale.ROOT)));
+        config.setCacheSize(cacheSize);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        config.setTempStore(SQLiteConfig.TempStore.valueOf(tempStore.toUpperCase(Locale.ROOT)));
+        config.setBusyTimeout(busyTimeout);
+        return config.toProperties();
+    }
+
+    public String getName() { return name; }
+    public String getDbPath() { return dbPath; }
+    public void setDbPath(String dbPath) { this.dbPath = dbPath; }
+    public String getJournalMode() { return journalMode; }
+    public void setJournalMode(String journalMode) { this.journalMode = journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public void setSynchronous(String synchronous) { this.synchronous = synchronous; }
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+    public long getMmapSize() { return mmapSize; }
+    public void setMmapSize(long mmapSize) { this.mmapSize = mmapSize; }
+    public String getTempStore() { return tempStore; }
+    public void setTempStore(String tempStore) { this.tempStore = tempStore; }
+    public int getBusyTimeout() { return busyTimeout; }
+    public void setBusyTimeout(int busyTimeout) { this.busyTimeout = busyTimeout; }
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    @Override
+    public String toString() {
+        return "StorageProfile{name=" + name + ", dbPath=" + dbPath + ", journalMode=" + journalMode
+                + ", synchronous=" + synchronous + ", cacheSize=" + cacheSize + ", mmapSize=" + mmapSize
+                + ", tempStore=" + tempStore + ", busyTimeout=" + busyTimeout + ", poolSize=" + poolSize + "}";
+    }
+}
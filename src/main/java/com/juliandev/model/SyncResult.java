@@ -0,0 +1,37 @@
+package com.juliandev.model;
+
+/**
+ * Resultado de exportar o aplicar un archivo de cambios: el rango de secuencias que cubre
+ * y cuántos contactos se insertaron o modificaron, se borraron, ya estaban al día o chocaron
+ * con el correo de otro contacto.
+ */
+public class SyncResult {
+    private final long fromSequence;
+    private final long toSequence;
+    private final int upserted;
+    private final int deleted;
+    private final int unchanged;
+    private final int conflicts;
+
+    public SyncResult(long fromSequence, long toSequence, int upserted, int deleted, int unchanged, int conflicts) {
+        this.fromSequence = fromSequence;
+        this.toSequence = toSequence;
+        this.upserted = upserted;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+        this.conflicts = conflicts;
+    }
+
+    public long getFromSequence() { return fromSequence; }
+    public long getToSequence() { return toSequence; }
+    public int getUpserted() { return upserted; }
+    public int getDeleted() { return deleted; }
+    public int getUnchanged() { return unchanged; }
+    public int getConflicts() { return conflicts; }
+
+    @Override
+    public String toString() {
+        return "SyncResult{fromSequence=" + fromSequence + ", toSequence=" + toSequence + ", upserted=" + upserted
+                + ", deleted=" + deleted + ", unchanged=" + unchanged + ", conflicts=" + conflicts + "}";
+    }
+}
@@ -0,0 +1,36 @@
+package com.juliandev.model;
+
+/**
+ * Resultado de una escritura condicionada por el índice único de {@code email}.
+ */
+public class UpsertResult {
+
+    public enum Status {
+        INSERTED,
+        UPDATED,
+        /** Otro contacto ya usa el correo; no se ha escrito nada. */
+        CONFLICT,
+        /** El contacto a actualizar ya no existe. */
+        NOT_FOUND
+    }
+
+    private final Status status;
+    private final Contact contact;
+
+    public UpsertResult(Status status, Contact contact) {
+        this.status = status;
+        this.contact = contact;
+    }
+
+    public Status getStatus() { return status; }
+
+    /**
+     * Fila almacenada tras insertar o actualizar; {@code null} en los demás casos.
+     */
+    public Contact getContact() { return contact; }
+
+    @Override
+    public String toString() {
+        return "UpsertResult{status=" + status + ", contact=" + (contact == null ? null : contact.getId()) + "}";
+    }
+}
@@ -0,0 +1,232 @@
+package com.juliandev.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cola de escritura diferida delante de {@link ContactDAO}.
+ *
+ * <p>Las actualizaciones y borrados se acumulan y se confirman juntos en una sola transacción
+ * cada {@code contacts.write.flush.ms} milisegundos (50 por defecto) o al reunir
+ * {@code contacts.write.batch.size} contactos distintos (256 por defecto). Varias escrituras
+ * sobre el mismo ID antes del commit se combinan en una: solo se guarda la última. Un cambio de
+ * favorito escribe solo esa columna, de modo que no deshace una edición hecha por otra vía.</p>
+ *
+ * <p>Cada operación devuelve un {@link CompletableFuture} que se completa después del commit
+ * con la fila almacenada ({@code null} si el contacto ya no existe). Los futuros se completan
+ * en el hilo de escritura; el código de interfaz debe pasar al EDT por su cuenta.</p>
+ */
+public class WriteBehindQueue implements AutoCloseable {
+    private final ContactDAO dao;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "contact-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+    // En orden de llegada de la primera escritura de cada ID
+    private LinkedHashMap<Integer, PendingWrite> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    public WriteBehindQueue(ContactDAO dao) {
+        this(dao, Long.getLong("contacts.write.flush.ms", 50), Integer.getInteger("contacts.write.batch.size", 256));
+    }
+
+    public WriteBehindQueue(ContactDAO dao, long flushIntervalMillis, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + maxBatchSize);
+        }
+        this.dao = dao;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Encola la actualización de una copia del contacto.
+     */
+    public CompletableFuture<Contact> update(Contact contact) {
+        Contact copy = new Contact(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhone(),
+                contact.getContactType(), contact.isFavorite());
+        return enqueue(contact.getId(), write -> {
+            write.contact = copy;
+            write.favoriteOnly = false;
+            write.delete = false;
+        });
+    }
+
+    /**
+     * Encola el cambio de favorito ({@code UPDATE contacts SET favorite = ?}). Si hay una
+     * actualización completa pendiente del mismo contacto se aplica sobre ella; si hay un
+     * borrado pendiente, el borrado se mantiene.
+     */
+    public CompletableFuture<Contact> setFavorite(int id, boolean favorite) {
+        return enqueue(id, write -> {
+            if (write.delete) {
+                return;
+            }
+            if (write.contact != null) {
+                write.contact.setFavorite(favorite);
+            } else {
+                write.favoriteOnly = true;
+                write.favorite = favorite;
+            }
+        });
+    }
+
+    /**
+     * Encola el borrado; sustituye a cualquier actualización pendiente del mismo contacto.
+     */
+    public CompletableFuture<Contact> delete(int id) {
+        return enqueue(id, write -> {
+            write.contact = null;
+            write.favoriteOnly = false;
+            write.delete = true;
+        });
+    }
+
+    /**
+     * Confirma ya las escrituras pendientes. El futuro se completa cuando todo lo encolado
+     * antes de la llamada está confirmado (o ha fallado).
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(this::drain, writer);
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private CompletableFuture<Contact> enqueue(int id, Consumer<PendingWrite> change) {
+        CompletableFuture<Contact> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Write-behind queue is closed");
+            }
+            PendingWrite write = pending.computeIfAbsent(id, PendingWrite::new);
+            change.accept(write);
+            write.futures.add(future);
+            if (pending.size() >= maxBatchSize) {
+                writer.execute(this::drain);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                writer.schedule(this::drain, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    private void drain() {
+        List<PendingWrite> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+        List<Contact> updates = new ArrayList<>(batch.size());
+        List<PendingWrite> order = new ArrayList<>(batch.size());
+        int[] favoriteIds = new int[batch.size()];
+        boolean[] favorites = new boolean[batch.size()];
+        int[] deleteIds = new int[batch.size()];
+        int favoriteCount = 0;
+        int deleteCount = 0;
+        // Mismo orden que los resultados de applyWrites: actualizaciones, favoritos y borrados
+        for (PendingWrite write : batch) {
+            if (write.contact != null) {
+                updates.add(write.contact);
+                order.add(write);
+            }
+        }
+        for (PendingWrite write : batch) {
+            if (write.favoriteOnly) {
+                favoriteIds[favoriteCount] = write.id;
+                favorites[favoriteCount++] = write.favorite;
+                order.add(write);
+            }
+        }
+        for (PendingWrite write : batch) {
+            if (write.delete) {
+                deleteIds[deleteCount++] = write.id;
+                order.add(write);
+            }
+        }
+        try {
+            Contact[] results = dao.applyWrites(updates, Arrays.copyOf(favoriteIds, favoriteCount),
+                    Arrays.copyOf(favorites, favoriteCount), Arrays.copyOf(deleteIds, deleteCount));
+            for (int i = 0; i < results.length; i++) {
+                order.get(i).complete(results[i]);
+            }
+        } catch (RuntimeException e) {
+            // Un lote fallido (p. ej. un correo duplicado) no debe arrastrar al resto: se reintenta uno a uno
+            for (PendingWrite write : order) {
+                write.applyAlone();
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar escrituras, confirma las pendientes y detiene el hilo de escritura.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush().join();
+        // Ya no queda nada pendiente: se descarta el flush programado en vez de esperar a que venza
+        writer.shutdownNow();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class PendingWrite {
+        private final int id;
+        // Actualización completa, o null si solo cambia el favorito o es un borrado
+        private Contact contact;
+        private boolean favoriteOnly;
+        private boolean favorite;
+        private boolean delete;
+        private final List<CompletableFuture<Contact>> futures = new ArrayList<>(1);
+
+        PendingWrite(int id) {
+            this.id = id;
+        }
+
+        void applyAlone() {
+            try {
+                complete(delete ? dao.deleteContact(id)
+                        : contact != null ? dao.updateContact(contact) : dao.updateFavorite(id, favorite));
+            } catch (RuntimeException e) {
+                for (CompletableFuture<Contact> future : futures) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+
+        void complete(Contact result) {
+            for (CompletableFuture<Contact> future : futures) {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.juliandev.search;
+
+/**
+ * Motor de búsqueda en memoria que el controlador consulta en lugar de SQLite cuando está listo.
+ */
+public interface ContactSearchEngine {
+    boolean isReady();
+
+    /**
+     * IDs de los contactos que coinciden con {@code query}, en el orden en que deben mostrarse.
+     */
+    int[] search(String query);
+
+    /**
+     * {@code true} si {@link #search} ordena por relevancia; si no, los IDs van en orden ascendente.
+     */
+    boolean isRanked();
+}
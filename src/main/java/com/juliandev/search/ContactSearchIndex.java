@@ -0,0 +1,414 @@
+package com.juliandev.search;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactChangeListener;
+import com.juliandev.model.ContactDAO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas en memoria sobre nombre, correo, teléfono y tipo de los contactos.
+ * Permite buscar subcadenas sin consultar SQLite: las listas de coincidencias son arreglos
+ * de enteros y cada candidato se verifica contra el texto indexado.
+ * Se carga una vez desde el DAO y se mantiene al día escuchando sus modificaciones.
+ */
+public class ContactSearchIndex implements ContactChangeListener, ContactSearchEngine {
+    private static final int MIN_TRIGRAM_QUERY_LENGTH = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ContactDAO dao;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "contact-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Data data = new Data(16);
+    private volatile boolean ready;
+    // Cambios recibidos mientras se carga; se aplican sobre los datos nuevos antes de publicarlos
+    private List<Runnable> pendingChanges;
+
+    public ContactSearchIndex(ContactDAO dao) {
+        this.dao = dao;
+        dao.addChangeListener(this);
+    }
+
+    /**
+     * Carga (o recarga) el índice en segundo plano; hasta entonces {@link #isReady()} es falso.
+     */
+    public void loadAsync() {
+        loader.execute(this::load);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean isRanked() {
+        return false;
+    }
+
+    /**
+     * Devuelve los IDs de los contactos que contienen {@code query} (sin distinguir mayúsculas)
+     * en alguno de sus campos, ordenados por ID.
+     */
+    @Override
+    public int[] search(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        int[] ids;
+        lock.readLock().lock();
+        try {
+            ids = needle.length() < MIN_TRIGRAM_QUERY_LENGTH ? data.scan(needle) : data.lookup(needle);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimación de la memoria retenida por el índice, en bytes.
+     */
+    public long estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return data.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void contactSaved(Contact contact) {
+        apply(() -> data.put(contact));
+    }
+
+    @Override
+    public void contactUpdated(Contact contact) {
+        apply(() -> data.put(contact));
+    }
+
+    @Override
+    public void contactDeleted(Contact contact) {
+        apply(() -> data.remove(contact.getId()));
+    }
+
+    @Override
+    public void contactsReloaded() {
+        loadAsync();
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            change.run();
+            data.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Data loaded = new Data(Math.max(16, size()));
+        try {
+            dao.forEachContact(loaded::put);
+        } catch (RuntimeException e) {
+            System.err.println("Error loading search index: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Reaplicar sobre la instantánea los cambios concurrentes (son idempotentes)
+            Data current = data;
+            data = loaded;
+            for (Runnable change : pendingChanges) {
+                change.run();
+            }
+            data.compactIfNeeded();
+            pendingChanges = null;
+            ready = true;
+            current.release();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static long trigram(CharSequence text, int start) {
+        return (1L << 48) | ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    static String document(Contact contact) {
+        StringBuilder doc = new StringBuilder(64);
+        appendField(doc, contact.getName());
+        appendField(doc, contact.getEmail());
+        appendField(doc, contact.getPhone());
+        appendField(doc, contact.getContactType());
+        return doc.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void appendField(StringBuilder doc, String value) {
+        if (!doc.isEmpty()) {
+            doc.append(FIELD_SEPARATOR);
+        }
+        if (value != null) {
+            doc.append(value);
+        }
+    }
+
+    /**
+     * Estado del índice. Cada contacto ocupa una posición ("slot"); al modificarse se le asigna
+     * una nueva y la anterior queda marcada como no viva, de modo que las listas de trigramas
+     * siempre están ordenadas. Las posiciones muertas se eliminan al compactar.
+     */
+    private static final class Data {
+        private int[] slotIds;
+        private String[] docs;
+        private int slotCount;
+        private final BitSet live = new BitSet();
+        private int liveCount;
+        private final IntIntHashMap idToSlot;
+        private final LongIntHashMap trigramLists;
+        private int[][] postings = new int[1024][];
+        private int[] postingSizes = new int[1024];
+        private int listCount;
+
+        Data(int expectedSize) {
+            slotIds = new int[expectedSize];
+            docs = new String[expectedSize];
+            idToSlot = new IntIntHashMap(expectedSize);
+            trigramLists = new LongIntHashMap(Math.max(1024, expectedSize / 8));
+        }
+
+        void put(Contact contact) {
+            remove(contact.getId());
+            if (slotCount == slotIds.length) {
+                slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+                docs = Arrays.copyOf(docs, slotCount * 2);
+            }
+            int slot = slotCount++;
+            String doc = document(contact);
+            slotIds[slot] = contact.getId();
+            docs[slot] = doc;
+            live.set(slot);
+            liveCount++;
+            idToSlot.put(contact.getId(), slot);
+            index(slot, doc);
+        }
+
+        void remove(int id) {
+            int slot = idToSlot.get(id, -1);
+            if (slot >= 0) {
+                idToSlot.remove(id);
+                live.clear(slot);
+                docs[slot] = null;
+                liveCount--;
+            }
+        }
+
+        private void index(int slot, String doc) {
+            int count = doc.length() - 2;
+            if (count <= 0) {
+                return;
+            }
+            long[] grams = new long[count];
+            for (int i = 0; i < count; i++) {
+                grams[i] = trigram(doc, i);
+            }
+            Arrays.sort(grams);
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && grams[i] == grams[i - 1]) {
+                    continue;
+                }
+                int list = trigramLists.get(grams[i], -1);
+                if (list < 0) {
+                    list = newList();
+                    trigramLists.put(grams[i], list);
+                }
+                append(list, slot);
+            }
+        }
+
+        private int newList() {
+            if (listCount == postings.length) {
+                postings = Arrays.copyOf(postings, listCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, listCount * 2);
+            }
+            postings[listCount] = new int[4];
+            return listCount++;
+        }
+
+        private void append(int list, int slot) {
+            int size = postingSizes[list];
+            int[] entries = postings[list];
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size + (size >> 1) + 1);
+                postings[list] = entries;
+            }
+            entries[size] = slot;
+            postingSizes[list] = size + 1;
+        }
+
+        int[] scan(String needle) {
+            int[] result = new int[liveCount];
+            int count = 0;
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                if (docs[slot].contains(needle)) {
+                    result[count++] = slotIds[slot];
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        int[] lookup(String needle) {
+            int gramCount = needle.length() - 2;
+            int[] lists = new int[gramCount];
+            for (int i = 0; i < gramCount; i++) {
+                lists[i] = trigramLists.get(trigram(needle, i), -1);
+                if (lists[i] < 0) {
+                    return new int[0];
+                }
+            }
+            // Intersecar empezando por la lista más corta
+            int shortest = 0;
+            for (int i = 1; i < gramCount; i++) {
+                if (postingSizes[lists[i]] < postingSizes[lists[shortest]]) {
+                    shortest = i;
+                }
+            }
+            int[] candidates = Arrays.copyOf(postings[lists[shortest]], postingSizes[lists[shortest]]);
+            int count = candidates.length;
+            for (int i = 0; i < gramCount && count > 0; i++) {
+                if (i != shortest && lists[i] != lists[shortest]) {
+                    count = intersect(candidates, count, postings[lists[i]], postingSizes[lists[i]]);
+                }
+            }
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = candidates[i];
+                if (live.get(slot) && docs[slot].contains(needle)) {
+                    candidates[matches++] = slotIds[slot];
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        }
+
+        // Deja en candidates[0..n) los elementos también presentes en other; ambos están ordenados
+        private static int intersect(int[] candidates, int count, int[] other, int otherSize) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < otherSize; i++) {
+                int value = candidates[i];
+                j = gallop(other, j, otherSize, value);
+                if (j < otherSize && other[j] == value) {
+                    candidates[kept++] = value;
+                }
+            }
+            return kept;
+        }
+
+        private static int gallop(int[] array, int from, int to, int value) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < to && array[high] < value) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            high = Math.min(high, to);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (array[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void compactIfNeeded() {
+            if (slotCount - liveCount <= Math.max(1024, liveCount)) {
+                return;
+            }
+            int[] oldIds = slotIds;
+            String[] oldDocs = docs;
+            int oldCount = slotCount;
+            BitSet oldLive = (BitSet) live.clone();
+            slotIds = new int[Math.max(16, liveCount * 2)];
+            docs = new String[slotIds.length];
+            slotCount = 0;
+            live.clear();
+            liveCount = 0;
+            for (int i = 0; i < listCount; i++) {
+                postings[i] = new int[4];
+                postingSizes[i] = 0;
+            }
+            for (int slot = oldLive.nextSetBit(0); slot >= 0 && slot < oldCount; slot = oldLive.nextSetBit(slot + 1)) {
+                int newSlot = slotCount++;
+                slotIds[newSlot] = oldIds[slot];
+                docs[newSlot] = oldDocs[slot];
+                live.set(newSlot);
+                liveCount++;
+                idToSlot.put(oldIds[slot], newSlot);
+                index(newSlot, oldDocs[slot]);
+            }
+        }
+
+        long memoryBytes() {
+            long bytes = (long) slotIds.length * 4 + (long) docs.length * 4 + live.size() / 8;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (docs[slot] != null) {
+                    bytes += 24 + 16 + docs[slot].length();
+                }
+            }
+            for (int i = 0; i < listCount; i++) {
+                bytes += 16 + (long) postings[i].length * 4;
+            }
+            return bytes + (long) postings.length * 4 + (long) postingSizes.length * 4
+                    + idToSlot.memoryBytes() + trigramLists.memoryBytes();
+        }
+
+        void release() {
+            slotIds = new int[0];
+            docs = new String[0];
+            postings = new int[0][];
+            postingSizes = new int[0];
+            slotCount = 0;
+            listCount = 0;
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package com.juliandev.search;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactChangeListener;
+import com.juliandev.model.ContactDAO;
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Búsqueda aproximada por nombre en memoria, con resultados ordenados por relevancia.
+ *
+ * <p>Los nombres se parten en palabras normalizadas: minúsculas y sin acentos, salvo la ñ y la ç,
+ * que cambian la pronunciación. Cada palabra de la consulta se compara con el vocabulario de cuatro
+ * formas: igual, como prefijo, a distancia de edición (Levenshtein) 1 o 2 recorriendo el trie del
+ * vocabulario ({@link TermTrie}), y por clave fonética Double Metaphone, que acerca grafías de
+ * nombres ingleses, españoles y franceses
+ * ("Jhon" y "John", "Gonzales" y "González"). La puntuación de un contacto es la suma, por palabra
+ * de la consulta, de su mejor coincidencia; los mejores se eligen con un montículo acotado.</p>
+ *
+ * <p>Como {@link ContactSearchIndex}, se carga desde el DAO y se mantiene al día escuchando sus
+ * modificaciones.</p>
+ */
+public class FuzzyNameIndex implements ContactChangeListener, ContactSearchEngine {
+    static final int EXACT_SCORE = 100;
+    static final int PREFIX_SCORE = 80;
+    static final int ONE_EDIT_SCORE = 70;
+    static final int PHONETIC_SCORE = 60;
+    static final int TWO_EDITS_SCORE = 50;
+    static final int ALTERNATE_PHONETIC_SCORE = 45;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_PHONETIC_LENGTH = 3;
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+
+    private final ContactDAO dao;
+    private final int limit;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "contact-fuzzy-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Data data = new Data(16);
+    // Acumuladores por contacto reutilizados entre búsquedas; cada búsqueda los deja a cero
+    private final Queue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+    private volatile boolean ready;
+    // Cambios recibidos mientras se carga; se aplican sobre los datos nuevos antes de publicarlos
+    private List<Runnable> pendingChanges;
+
+    /**
+     * Índice que devuelve como mucho {@code contacts.search.fuzzy.limit} resultados (200 por defecto).
+     */
+    public FuzzyNameIndex(ContactDAO dao) {
+        this(dao, Integer.getInteger("contacts.search.fuzzy.limit", 200));
+    }
+
+    public FuzzyNameIndex(ContactDAO dao, int limit) {
+        this.dao = dao;
+        this.limit = limit;
+        dao.addChangeListener(this);
+    }
+
+    /**
+     * Carga (o recarga) el índice en segundo plano; hasta entonces {@link #isReady()} es falso.
+     */
+    public void loadAsync() {
+        loader.execute(this::load);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean isRanked() {
+        return true;
+    }
+
+    @Override
+    public int[] search(String query) {
+        return search(query, limit);
+    }
+
+    /**
+     * IDs de los {@code limit} contactos cuyo nombre se parece más a {@code query}, de más a menos
+     * parecido; a igual puntuación, por ID.
+     */
+    public int[] search(String query, int limit) {
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        Scratch scratch = scratches.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+        lock.readLock().lock();
+        try {
+            return data.search(tokens, limit, scratch);
+        } finally {
+            lock.readLock().unlock();
+            scratches.offer(scratch);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de palabras distintas en el vocabulario.
+     */
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return data.termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void contactSaved(Contact contact) {
+        apply(() -> data.put(contact));
+    }
+
+    @Override
+    public void contactUpdated(Contact contact) {
+        apply(() -> data.put(contact));
+    }
+
+    @Override
+    public void contactDeleted(Contact contact) {
+        apply(() -> data.remove(contact.getId()));
+    }
+
+    @Override
+    public void contactsReloaded() {
+        loadAsync();
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            change.run();
+            data.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carga el índice en el hilo actual.
+     */
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Data loaded = new Data(Math.max(16, size()));
+        try {
+            dao.forEachContact(loaded::put);
+        } catch (RuntimeException e) {
+            System.err.println("Error loading fuzzy search index: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Reaplicar sobre la instantánea los cambios concurrentes (son idempotentes)
+            data = loaded;
+            for (Runnable change : pendingChanges) {
+                change.run();
+            }
+            data.compactIfNeeded();
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Palabras normalizadas del texto: letras y dígitos en minúsculas, sin diacríticos salvo ñ y ç.
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>(4);
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder(16);
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = fold(lower.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    // Quita el diacrítico de una letra ("é" → "e"); la ñ y la ç se conservan porque Double Metaphone las trata aparte
+    private static char fold(char c) {
+        if (c < 0x80 || c == 'ñ' || c == 'ç') {
+            return c;
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return decomposed.charAt(0);
+    }
+
+    /**
+     * Errores de escritura tolerados según la longitud de la palabra: ninguno hasta 2 letras,
+     * uno hasta 5 y dos a partir de 6.
+     */
+    static int maxEdits(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Puntuación acumulada por slot, última palabra de la consulta que lo alcanzó y slots tocados.
+     */
+    private static final class Scratch {
+        private int[] totals = new int[0];
+        private int[] seen = new int[0];
+        private int[] touched = new int[1024];
+
+        void ensureCapacity(int slots) {
+            if (totals.length < slots) {
+                totals = new int[slots];
+                seen = new int[slots];
+            }
+        }
+
+        int touch(int count, int slot) {
+            if (count == touched.length) {
+                touched = Arrays.copyOf(touched, count * 2);
+            }
+            touched[count] = slot;
+            return count + 1;
+        }
+    }
+
+    /**
+     * Listas crecientes de enteros, una por índice.
+     */
+    private static final class IntLists {
+        private int[][] lists = new int[1024][];
+        private int[] sizes = new int[1024];
+
+        void add(int list, int value) {
+            if (list >= lists.length) {
+                lists = Arrays.copyOf(lists, Math.max(list + 1, lists.length * 2));
+                sizes = Arrays.copyOf(sizes, lists.length);
+            }
+            int[] values = lists[list];
+            if (values == null) {
+                values = lists[list] = new int[2];
+            } else if (sizes[list] == values.length) {
+                values = lists[list] = Arrays.copyOf(values, values.length * 2);
+            }
+            values[sizes[list]++] = value;
+        }
+
+        void clear(int list) {
+            lists[list] = null;
+            sizes[list] = 0;
+        }
+
+    }
+
+    private static final class Data {
+        // Contactos: cada slot guarda el ID y los términos de su nombre
+        private int[] slotIds;
+        private int[][] slotTerms;
+        private int slotCount;
+        private final BitSet live = new BitSet();
+        private int liveCount;
+        private final IntIntHashMap idToSlot;
+        // Vocabulario: términos distintos en un trie, para las búsquedas por prefijo y por distancia
+        private final TermTrie vocabulary = new TermTrie();
+        private int termCount;
+        private final IntLists postings = new IntLists();
+        // Claves Double Metaphone → términos, por clave principal y por clave alternativa
+        private final Map<String, Integer> primaryCodes = new HashMap<>();
+        private final Map<String, Integer> alternateCodes = new HashMap<>();
+        private final IntLists codeTerms = new IntLists();
+        private int codeCount;
+
+        Data(int expectedSize) {
+            slotIds = new int[expectedSize];
+            slotTerms = new int[expectedSize][];
+            idToSlot = new IntIntHashMap(expectedSize);
+        }
+
+        void put(Contact contact) {
+            remove(contact.getId());
+            if (slotCount == slotIds.length) {
+                slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+                slotTerms = Arrays.copyOf(slotTerms, slotCount * 2);
+            }
+            int slot = slotCount++;
+            List<String> words = tokens(contact.getName());
+            int[] ids = new int[words.size()];
+            int count = 0;
+            for (String word : words) {
+                int term = termOf(word);
+                if (!contains(ids, count, term)) {
+                    ids[count++] = term;
+                }
+            }
+            slotIds[slot] = contact.getId();
+            slotTerms[slot] = count == ids.length ? ids : Arrays.copyOf(ids, count);
+            live.set(slot);
+            liveCount++;
+            idToSlot.put(contact.getId(), slot);
+            index(slot);
+        }
+
+        void remove(int id) {
+            int slot = idToSlot.get(id, -1);
+            if (slot >= 0) {
+                idToSlot.remove(id);
+                live.clear(slot);
+                slotTerms[slot] = null;
+                liveCount--;
+            }
+        }
+
+        private void index(int slot) {
+            for (int term : slotTerms[slot]) {
+                postings.add(term, slot);
+            }
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int termOf(String word) {
+            int existing = vocabulary.get(word);
+            if (existing >= 0) {
+                return existing;
+            }
+            int term = termCount++;
+            vocabulary.put(word, term);
+            if (word.length() >= MIN_PHONETIC_LENGTH) {
+                String primary = METAPHONE.doubleMetaphone(word);
+                String alternate = METAPHONE.doubleMetaphone(word, true);
+                if (primary != null && !primary.isEmpty()) {
+                    codeTerms.add(codeList(primaryCodes, primary), term);
+                }
+                if (alternate != null && !alternate.isEmpty() && !alternate.equals(primary)) {
+                    codeTerms.add(codeList(alternateCodes, alternate), term);
+                }
+            }
+            return term;
+        }
+
+        private int codeList(Map<String, Integer> codes, String code) {
+            return codes.computeIfAbsent(code, key -> codeCount++);
+        }
+
+        int[] search(List<String> tokens, int limit, Scratch scratch) {
+            scratch.ensureCapacity(slotCount);
+            int[] totals = scratch.totals;
+            int[] seen = scratch.seen;
+            int touched = 0;
+            for (int t = 0; t < tokens.size(); t++) {
+                // Términos de mejor a peor puntuación: la primera vez que aparece un contacto es su
+                // mejor coincidencia para esta palabra de la consulta
+                IntIntHashMap termScores = matchTerms(tokens.get(t));
+                long[] ordered = new long[termScores.size()];
+                int[] count = {0};
+                termScores.forEach((term, score) -> ordered[count[0]++] = ((long) score << 32) | term);
+                Arrays.sort(ordered);
+                int mark = t + 1;
+                for (int i = ordered.length - 1; i >= 0; i--) {
+                    int term = (int) ordered[i];
+                    int score = (int) (ordered[i] >>> 32);
+                    int[] slots = postings.lists[term];
+                    for (int j = 0, n = postings.sizes[term]; j < n; j++) {
+                        int slot = slots[j];
+                        if (seen[slot] != mark && live.get(slot)) {
+                            seen[slot] = mark;
+                            if (totals[slot] == 0) {
+                                touched = scratch.touch(touched, slot);
+                            }
+                            totals[slot] += score;
+                        }
+                    }
+                }
+            }
+            // Clave: puntuación en los 32 bits altos y, a igualdad, primero el ID menor
+            TopKHeap heap = new TopKHeap(limit);
+            int[] touchedSlots = scratch.touched;
+            for (int i = 0; i < touched; i++) {
+                int slot = touchedSlots[i];
+                heap.offer(((long) totals[slot] << 32) | (Integer.MAX_VALUE - slotIds[slot]));
+                totals[slot] = 0;
+                seen[slot] = 0;
+            }
+            long[] keys = heap.toSortedArray();
+            int[] ids = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                ids[i] = Integer.MAX_VALUE - (int) keys[i];
+            }
+            return ids;
+        }
+
+        // Términos del vocabulario que se parecen a la palabra, con la puntuación de su mejor forma de coincidir
+        private IntIntHashMap matchTerms(String token) {
+            IntIntHashMap scores = new IntIntHashMap(64);
+            int exact = vocabulary.get(token);
+            if (exact >= 0) {
+                offer(scores, exact, EXACT_SCORE);
+            }
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                vocabulary.forEachWithPrefix(token, term -> offer(scores, term, PREFIX_SCORE));
+            }
+            int maxEdits = maxEdits(token.length());
+            if (maxEdits > 0) {
+                vocabulary.forEachWithinDistance(token.toCharArray(), maxEdits, (term, distance) -> {
+                    if (distance > 0) {
+                        offer(scores, term, distance == 1 ? ONE_EDIT_SCORE : TWO_EDITS_SCORE);
+                    }
+                });
+            }
+            if (token.length() >= MIN_PHONETIC_LENGTH) {
+                String primary = METAPHONE.doubleMetaphone(token);
+                String alternate = METAPHONE.doubleMetaphone(token, true);
+                offerCode(scores, primaryCodes, primary, PHONETIC_SCORE);
+                offerCode(scores, alternateCodes, primary, ALTERNATE_PHONETIC_SCORE);
+                if (alternate != null && !alternate.equals(primary)) {
+                    offerCode(scores, primaryCodes, alternate, ALTERNATE_PHONETIC_SCORE);
+                    offerCode(scores, alternateCodes, alternate, ALTERNATE_PHONETIC_SCORE);
+                }
+            }
+            return scores;
+        }
+
+        private void offerCode(IntIntHashMap scores, Map<String, Integer> codes, String code, int score) {
+            Integer list = code == null || code.isEmpty() ? null : codes.get(code);
+            if (list != null) {
+                int[] termList = codeTerms.lists[list];
+                for (int i = 0, n = codeTerms.sizes[list]; i < n; i++) {
+                    offer(scores, termList[i], score);
+                }
+            }
+        }
+
+        private static void offer(IntIntHashMap scores, int term, int score) {
+            if (scores.get(term, 0) < score) {
+                scores.put(term, score);
+            }
+        }
+
+        void compactIfNeeded() {
+            if (slotCount - liveCount <= Math.max(1024, liveCount)) {
+                return;
+            }
+            int[] oldIds = slotIds;
+            int[][] oldTerms = slotTerms;
+            int oldCount = slotCount;
+            BitSet oldLive = (BitSet) live.clone();
+            slotIds = new int[Math.max(16, liveCount * 2)];
+            slotTerms = new int[slotIds.length][];
+            slotCount = 0;
+            live.clear();
+            liveCount = 0;
+            for (int term = 0; term < termCount; term++) {
+                postings.clear(term);
+            }
+            for (int slot = oldLive.nextSetBit(0); slot >= 0 && slot < oldCount; slot = oldLive.nextSetBit(slot + 1)) {
+                int newSlot = slotCount++;
+                slotIds[newSlot] = oldIds[slot];
+                slotTerms[newSlot] = oldTerms[slot];
+                live.set(newSlot);
+                liveCount++;
+                idToSlot.put(oldIds[slot], newSlot);
+                index(newSlot);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.juliandev.search;
+
+import java.util.Arrays;
+
+/**
+ * Mapa int → int con direccionamiento abierto, sin objetos por entrada.
+ * Los valores {@link Integer#MIN_VALUE} y {@code MIN_VALUE + 1} están reservados como marcas internas
+ * y no pueden usarse como claves.
+ */
+final class IntIntHashMap {
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int REMOVED = Integer.MIN_VALUE + 1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int used;
+
+    IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int get(int key, int missing) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    void put(int key, int value) {
+        if ((used + 1) * 2 > keys.length) {
+            // Crece si hay muchas claves vivas; si no, solo limpia las marcas de borrado
+            rehash(size * 4 >= keys.length ? keys.length * 2 : keys.length);
+        }
+        int mask = keys.length - 1;
+        int firstRemoved = -1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == REMOVED && firstRemoved < 0) {
+                firstRemoved = i;
+            } else if (k == EMPTY) {
+                int slot = firstRemoved >= 0 ? firstRemoved : i;
+                if (slot == i) {
+                    used++;
+                }
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    void remove(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                keys[i] = REMOVED;
+                size--;
+                return;
+            }
+            if (k == EMPTY) {
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recorre las entradas en un orden cualquiera; el mapa no debe modificarse mientras tanto.
+     */
+    void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && keys[i] != REMOVED) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    long memoryBytes() {
+        return (long) keys.length * 8;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        used = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldKeys[i] != REMOVED) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(int key, int value);
+    }
+}
@@ -0,0 +1,167 @@
+package com.juliandev.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Trie de palabras → número de término, en arreglos paralelos sin un objeto por nodo. Los hijos de
+ * cada nodo forman una lista enlazada (el alfabeto de los nombres es pequeño) y el nodo 0 es la raíz.
+ *
+ * <p>Además de la búsqueda exacta y por prefijo, enumera las palabras a distancia de Levenshtein
+ * acotada recorriendo el trie con la matriz de distancias por filas: cada nodo añade una fila a la
+ * de su padre y, si todos los valores de la fila superan el máximo, se descarta el subárbol entero.
+ * Es el mismo recorrido que hace un autómata de Levenshtein sobre el trie.</p>
+ */
+final class TermTrie {
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private int[] terms = new int[1024];
+    private int nodeCount = 1;
+
+    TermTrie() {
+        firstChild[0] = -1;
+        nextSibling[0] = -1;
+        terms[0] = -1;
+    }
+
+    /**
+     * Término de la palabra, o -1 si no está.
+     */
+    int get(CharSequence word) {
+        int node = find(word);
+        return node < 0 ? -1 : terms[node];
+    }
+
+    void put(CharSequence word, int term) {
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            int child = child(node, c);
+            if (child < 0) {
+                child = addNode(node, c);
+            }
+            node = child;
+        }
+        terms[node] = term;
+    }
+
+    /**
+     * Entrega los términos de las palabras que empiezan por {@code prefix}, incluida ella misma.
+     */
+    void forEachWithPrefix(CharSequence prefix, IntConsumer action) {
+        int start = find(prefix);
+        if (start < 0) {
+            return;
+        }
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int node = stack[--top];
+            if (terms[node] >= 0) {
+                action.accept(terms[node]);
+            }
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = child;
+            }
+        }
+    }
+
+    /**
+     * Entrega cada término a distancia de Levenshtein {@code <= maxEdits} de {@code word}, con su distancia.
+     */
+    void forEachWithinDistance(char[] word, int maxEdits, IntIntHashMap.EntryVisitor action) {
+        int maxDepth = word.length + maxEdits;
+        int[][] rows = new int[maxDepth + 1][word.length + 1];
+        for (int j = 0; j <= word.length; j++) {
+            rows[0][j] = j;
+        }
+        // Recorrido en profundidad: al sacar un nodo de profundidad d, la fila d - 1 sigue siendo la de su padre
+        int[] stack = new int[64];
+        int[] depths = new int[64];
+        int top = 0;
+        for (int child = firstChild[0]; child >= 0; child = nextSibling[child]) {
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+                depths = Arrays.copyOf(depths, top * 2);
+            }
+            stack[top] = child;
+            depths[top++] = 1;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            int depth = depths[top];
+            int[] above = rows[depth - 1];
+            int[] row = rows[depth];
+            char c = labels[node];
+            row[0] = depth;
+            int min = depth;
+            for (int j = 1; j <= word.length; j++) {
+                int value = Math.min(above[j - 1] + (c == word[j - 1] ? 0 : 1), Math.min(above[j], row[j - 1]) + 1);
+                row[j] = value;
+                if (value < min) {
+                    min = value;
+                }
+            }
+            if (terms[node] >= 0 && row[word.length] <= maxEdits) {
+                action.visit(terms[node], row[word.length]);
+            }
+            if (min > maxEdits || depth == maxDepth) {
+                continue;
+            }
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                    depths = Arrays.copyOf(depths, top * 2);
+                }
+                stack[top] = child;
+                depths[top++] = depth + 1;
+            }
+        }
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    long memoryBytes() {
+        return (long) labels.length * 2 + (long) firstChild.length * 12;
+    }
+
+    private int find(CharSequence word) {
+        int node = 0;
+        for (int i = 0; i < word.length() && node >= 0; i++) {
+            node = child(node, word.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        int child = firstChild[node];
+        while (child >= 0 && labels[child] != c) {
+            child = nextSibling[child];
+        }
+        return child;
+    }
+
+    private int addNode(int parent, char c) {
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = c;
+        firstChild[node] = -1;
+        terms[node] = -1;
+        nextSibling[node] = firstChild[parent];
+        firstChild[parent] = node;
+        return node;
+    }
+}
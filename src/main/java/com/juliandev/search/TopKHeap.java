@@ -0,0 +1,74 @@
+package com.juliandev.search;
+
+import java.util.Arrays;
+
+/**
+ * Montículo de mínimos de tamaño fijo que conserva las {@code capacity} claves mayores de las
+ * ofrecidas: cada oferta cuesta O(log K) y la memoria no depende del número de candidatos.
+ */
+final class TopKHeap {
+    private final long[] heap;
+    private int size;
+
+    TopKHeap(int capacity) {
+        heap = new long[Math.max(1, capacity)];
+    }
+
+    void offer(long key) {
+        if (size < heap.length) {
+            heap[size] = key;
+            siftUp(size++);
+        } else if (key > heap[0]) {
+            heap[0] = key;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Claves conservadas, de mayor a menor.
+     */
+    long[] toSortedArray() {
+        long[] keys = Arrays.copyOf(heap, size);
+        Arrays.sort(keys);
+        for (int i = 0, j = keys.length - 1; i < j; i++, j--) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+        return keys;
+    }
+
+    private void siftUp(int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private void siftDown(int index) {
+        long key = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
@@ -0,0 +1,329 @@
+package com.juliandev.view;
+
+import com.juliandev.metrics.Metrics;
+import com.juliandev.model.Contact;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modelo de tabla virtual: solo conoce los IDs de las filas y carga los contactos
+ * por páginas bajo demanda, conservando las páginas recientes en una caché LRU acotada.
+ * También puede mostrar una lista ya materializada (por ejemplo, resultados de búsqueda).
+ */
+public class ContactTableModel extends AbstractTableModel {
+    public static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 50;
+
+    /**
+     * Carga los contactos de {@code pageIds}. La página se pide siempre por los IDs que guarda la tabla,
+     * no por clave desde la fila anterior: una edición puede cambiar la clave de orden de esa fila sin
+     * moverla de sitio, y la página seguiría desde otro punto del orden.
+     */
+    public interface PageLoader {
+        List<Contact> loadPage(int[] pageIds);
+    }
+
+    private String[] columnNames;
+    private int[] ids = new int[0];
+    private int rowCount;
+    private List<Contact> rows;
+    private PageLoader loader;
+    // Si los IDs están ordenados de menor a mayor se localizan por búsqueda binaria
+    private boolean idOrder = true;
+    private int generation;
+    private final Map<Integer, Contact[]> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Contact[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private final ExecutorService pageExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "contact-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ContactTableModel(String[] columnNames) {
+        this.columnNames = columnNames.clone();
+    }
+
+    /**
+     * Muestra las filas identificadas por {@code ids}, cargándolas por páginas con {@code loader}.
+     */
+    public void showPaged(int[] ids, PageLoader loader) {
+        showPaged(ids, loader, true);
+    }
+
+    /**
+     * Como {@link #showPaged(int[], PageLoader)}, indicando si {@code ids} viene en orden de ID ascendente.
+     * Con otro orden las filas se localizan recorriendo los IDs y las inserciones se añaden al final.
+     */
+    public void showPaged(int[] ids, PageLoader loader, boolean idOrder) {
+        this.ids = ids;
+        this.idOrder = idOrder;
+        this.rowCount = ids.length;
+        this.rows = null;
+        this.loader = loader;
+        resetCache();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Muestra una lista de contactos ya cargada en memoria.
+     */
+    public void showContacts(List<Contact> contacts) {
+        this.rows = new ArrayList<>(contacts);
+        this.ids = new int[0];
+        this.rowCount = rows.size();
+        this.loader = null;
+        this.idOrder = true;
+        resetCache();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Añade contactos al final de la lista materializada (resultados que llegan por tandas).
+     */
+    public void appendContacts(List<Contact> contacts) {
+        if (rows == null) {
+            showContacts(contacts);
+            return;
+        }
+        if (contacts.isEmpty()) {
+            return;
+        }
+        int first = rows.size();
+        rows.addAll(contacts);
+        rowCount = rows.size();
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    /**
+     * Devuelve el contacto de la fila, o {@code null} si su página aún no se ha cargado.
+     */
+    public Contact getContactAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        if (rows != null) {
+            return rows.get(row);
+        }
+        int page = row / PAGE_SIZE;
+        Contact[] contacts = pageCache.get(page);
+        if (contacts == null) {
+            requestPage(page);
+            return null;
+        }
+        return contacts[row - page * PAGE_SIZE];
+    }
+
+    public boolean isPaged() {
+        return rows == null;
+    }
+
+    public boolean isIdOrder() {
+        return idOrder;
+    }
+
+    /**
+     * Añade un contacto recién insertado en su posición por ID (al final si la tabla tiene otro orden)
+     * y notifica solo esa fila.
+     */
+    public void contactInserted(Contact contact) {
+        int row;
+        if (rows != null) {
+            row = rows.size();
+            rows.add(contact);
+        } else {
+            int index = idOrder ? Arrays.binarySearch(ids, 0, rowCount, contact.getId()) : -rowCount - 1;
+            if (index >= 0 || (!idOrder && rowOf(contact.getId()) >= 0)) {
+                contactUpdated(contact);
+                return;
+            }
+            row = -index - 1;
+            if (rowCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(16, rowCount * 2));
+            }
+            System.arraycopy(ids, row, ids, row + 1, rowCount - row);
+            ids[row] = contact.getId();
+            invalidatePagesFrom(row);
+        }
+        rowCount++;
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Sustituye la fila del contacto, si está visible, y notifica solo esa fila.
+     */
+    public void contactUpdated(Contact contact) {
+        int row = rowOf(contact.getId());
+        if (row < 0) {
+            return;
+        }
+        if (rows != null) {
+            rows.set(row, contact);
+        } else {
+            Contact[] page = pageCache.get(row / PAGE_SIZE);
+            if (page != null) {
+                page[row % PAGE_SIZE] = contact;
+            }
+        }
+        fireTableRowsUpdated(row, row);
+    }
+
+    /**
+     * Quita la fila del contacto, si está visible, y notifica solo esa fila.
+     */
+    public void contactDeleted(int id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return;
+        }
+        if (rows != null) {
+            rows.remove(row);
+        } else {
+            System.arraycopy(ids, row + 1, ids, row, rowCount - row - 1);
+            invalidatePagesFrom(row);
+        }
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+
+    private int rowOf(int id) {
+        if (rows == null && idOrder) {
+            int index = Arrays.binarySearch(ids, 0, rowCount, id);
+            return Math.max(index, -1);
+        }
+        if (rows == null) {
+            for (int i = 0; i < rowCount; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Las páginas a partir de la fila cambian de contenido al desplazarse los IDs
+    private void invalidatePagesFrom(int row) {
+        int firstPage = row / PAGE_SIZE;
+        pageCache.keySet().removeIf(page -> page >= firstPage);
+        generation++;
+        pendingPages.clear();
+    }
+
+    // Todas las notificaciones pasan por aquí: mide lo que tarda la tabla en procesarlas en el EDT
+    @Override
+    public void fireTableChanged(TableModelEvent e) {
+        long start = Metrics.start();
+        super.fireTableChanged(e);
+        Metrics.record("edt.table.refresh", start);
+    }
+
+    public void setColumnNames(String[] columnNames) {
+        this.columnNames = columnNames.clone();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Contact contact = getContactAt(row);
+        if (contact == null) {
+            return column == 0 && rows == null ? ids[row] : null;
+        }
+        return switch (column) {
+            case 0 -> contact.getId();
+            case 1 -> contact.getName();
+            case 2 -> contact.getEmail();
+            case 3 -> contact.getPhone();
+            case 4 -> contact.getContactType();
+            case 5 -> contact.isFavorite();
+            default -> null;
+        };
+    }
+
+    private void resetCache() {
+        generation++;
+        pageCache.clear();
+        pendingPages.clear();
+    }
+
+    private void requestPage(int page) {
+        if (loader == null || !pendingPages.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        PageLoader pageLoader = loader;
+        int from = page * PAGE_SIZE;
+        int to = Math.min(from + PAGE_SIZE, rowCount);
+        int[] pageIds = Arrays.copyOfRange(ids, from, to);
+        pageExecutor.execute(() -> {
+            List<Contact> loaded;
+            try {
+                loaded = pageLoader.loadPage(pageIds);
+            } catch (RuntimeException e) {
+                System.err.println("Error loading contacts page " + page + ": " + e.getMessage());
+                loaded = List.of();
+            }
+            Contact[] contacts = alignToIds(pageIds, loaded);
+            SwingUtilities.invokeLater(() -> pageLoaded(requestGeneration, page, contacts));
+        });
+    }
+
+    // Coloca cada contacto en la posición de su ID; las filas que ya no existen quedan vacías
+    private static Contact[] alignToIds(int[] pageIds, List<Contact> loaded) {
+        Map<Integer, Contact> byId = new HashMap<>(loaded.size() * 2);
+        for (Contact contact : loaded) {
+            byId.put(contact.getId(), contact);
+        }
+        Contact[] contacts = new Contact[pageIds.length];
+        for (int i = 0; i < pageIds.length; i++) {
+            contacts[i] = byId.get(pageIds[i]);
+        }
+        return contacts;
+    }
+
+    private void pageLoaded(int requestGeneration, int page, Contact[] contacts) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        pendingPages.remove(page);
+        pageCache.put(page, contacts);
+        int from = page * PAGE_SIZE;
+        int to = Math.min(from + contacts.length, rowCount) - 1;
+        if (from <= to) {
+            fireTableRowsUpdated(from, to);
+        }
+    }
+}
@@ -2,9 +2,8 @@ package com.juliandev.view;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.util.ResourceBundle;
 
 public class ContactView extends JFrame {
@@ -12,7 +11,10 @@ public class ContactView extends JFrame {
     private JComboBox<String> contactTypeComboBox;
     private JButton saveButton, clearButton, editButton, deleteButton, favoriteButton;
     private JTable contactTable;
-    private DefaultTableModel tableModel;
+    private ContactTableModel tableModel;
+    // Columna del modelo por la que está ordenada la tabla (-1 si no se indica) y sentido
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
     private JLabel statusLabel;
     private JComboBox<String> languageComboBox;
     private ResourceBundle messages;
@@ -124,12 +126,7 @@ public class ContactView extends JFrame {
                 messages.getString("column.type"),
                 messages.getString("column.favorite")
         };
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new ContactTableModel(columns);
         contactTable = new JTable(tableModel);
         contactTable.setRowHeight(30);
         contactTable.setGridColor(new Color(200, 200, 200));
@@ -146,10 +143,10 @@ public class ContactView extends JFrame {
                                                            boolean hasFocus, int row, int column) {
                 JLabel label = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
                 if (value instanceof Boolean && (Boolean) value) {
-                    label.setIcon(scaleIcon("/icons/favorite.png", 24, 24));
+                    label.setIcon(IconCache.get("/icons/favorite.png", 24, 24));
                     label.setText("");
                 } else {
-                    label.setIcon(scaleIcon("/icons/not_favorite.png", 24, 24));
+                    label.setIcon(IconCache.get("/icons/not_favorite.png", 24, 24));
                     label.setText("");
                 }
                 label.setHorizontalAlignment(CENTER);
@@ -199,13 +196,27 @@ public class ContactView extends JFrame {
         JMenu fileMenu = new JMenu(messages.getString("menu.file"));
         fileMenu.setForeground(new Color(45, 55, 72));
         importJsonItem = new JMenuItem(messages.getString("menu.import.json"),
-                scaleIcon("/icons/import.png", 20, 20));
+                IconCache.get("/icons/import.png", 20, 20));
         importJsonItem.setForeground(new Color(45, 55, 72));
         JMenuItem exportItem = new JMenuItem(messages.getString("menu.export"),
-                scaleIcon("/icons/export.png", 20, 20));
+                IconCache.get("/icons/export.png", 20, 20));
         exportItem.setForeground(new Color(45, 55, 72));
+        // Sincronización incremental: solo los cambios desde la última exportación
+        JMenuItem exportChangesItem = new JMenuItem(messages.getString("menu.export.changes"),
+                IconCache.get("/icons/export.png", 20, 20));
+        exportChangesItem.setForeground(new Color(45, 55, 72));
+        JMenuItem importChangesItem = new JMenuItem(messages.getString("menu.import.changes"),
+                IconCache.get("/icons/import.png", 20, 20));
+        importChangesItem.setForeground(new Color(45, 55, 72));
+        JMenuItem mergeDuplicatesItem = new JMenuItem(messages.getString("menu.merge.duplicates"));
+        mergeDuplicatesItem.setForeground(new Color(45, 55, 72));
         fileMenu.add(importJsonItem);
         fileMenu.add(exportItem);
+        fileMenu.addSeparator();
+        fileMenu.add(exportChangesItem);
+        fileMenu.add(importChangesItem);
+        fileMenu.addSeparator();
+        fileMenu.add(mergeDuplicatesItem);
         menuBar.add(fileMenu);
 
         JMenu languageMenu = new JMenu(messages.getString("menu.language"));
@@ -226,7 +237,7 @@ public class ContactView extends JFrame {
     }
 
     private JButton createStyledButton(String text, String iconPath, int iconWidth, int iconHeight) {
-        JButton button = new JButton(text, scaleIcon(iconPath, iconWidth, iconHeight));
+        JButton button = new JButton(text, IconCache.get(iconPath, iconWidth, iconHeight));
         button.setBackground(new Color(74, 144, 226));
         button.setForeground(Color.WHITE);
         button.setFocusPainted(false);
@@ -255,21 +266,6 @@ public class ContactView extends JFrame {
         return button;
     }
 
-    private ImageIcon scaleIcon(String iconPath, int width, int height) {
-        try {
-            ImageIcon icon = new ImageIcon(getClass().getResource(iconPath));
-            if (icon.getImage() == null) {
-                System.err.println("Icono no encontrado: " + iconPath);
-            }
-            Image image = icon.getImage();
-            Image scaledImage = image.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaledImage);
-        } catch (Exception e) {
-            System.err.println("Error al cargar el icono " + iconPath + ": " + e.getMessage());
-            return new ImageIcon(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
-        }
-    }
-
     // Getters
     public JTextField getNameField() { return nameField; }
     public JTextField getEmailField() { return emailField; }
@@ -282,7 +278,7 @@ public class ContactView extends JFrame {
     public JButton getClearButton() { return clearButton; }
     public JButton getFavoriteButton() { return favoriteButton; }
     public JTable getContactTable() { return contactTable; }
-    public DefaultTableModel getTableModel() { return tableModel; }
+    public ContactTableModel getTableModel() { return tableModel; }
     public JLabel getStatusLabel() { return statusLabel; }
     public JComboBox<String> getLanguageComboBox() { return languageComboBox; }
     public JMenuItem getExportMenuItem() {
@@ -291,6 +287,36 @@ public class ContactView extends JFrame {
     public JMenuItem getImportJsonMenuItem() {
         return ((JMenu) getJMenuBar().getMenu(0)).getItem(0);
     }
+    public JMenuItem getExportChangesMenuItem() {
+        return ((JMenu) getJMenuBar().getMenu(0)).getItem(3);
+    }
+    public JMenuItem getImportChangesMenuItem() {
+        return ((JMenu) getJMenuBar().getMenu(0)).getItem(4);
+    }
+    public JMenuItem getMergeDuplicatesMenuItem() {
+        return ((JMenu) getJMenuBar().getMenu(0)).getItem(6);
+    }
+
+    /**
+     * Marca en la cabecera la columna (del modelo) por la que se ordena la tabla.
+     */
+    public void setSortIndicator(int column, boolean ascending) {
+        this.sortColumn = column;
+        this.sortAscending = ascending;
+        updateHeaders();
+    }
+
+    private void updateHeaders() {
+        TableColumnModel columnModel = contactTable.getColumnModel();
+        for (int i = 0; i < tableModel.getColumnCount(); i++) {
+            String header = tableModel.getColumnName(i);
+            if (i == sortColumn) {
+                header += sortAscending ? " \u25B2" : " \u25BC";
+            }
+            columnModel.getColumn(contactTable.convertColumnIndexToView(i)).setHeaderValue(header);
+        }
+        contactTable.getTableHeader().repaint();
+    }
 
     public void updateMessages(ResourceBundle messages) {
         this.messages = messages;
@@ -307,6 +333,9 @@ public class ContactView extends JFrame {
         getJMenuBar().getMenu(0).setText(messages.getString("menu.file"));
         getImportJsonMenuItem().setText(messages.getString("menu.import.json"));
         getExportMenuItem().setText(messages.getString("menu.export"));
+        getExportChangesMenuItem().setText(messages.getString("menu.export.changes"));
+        getImportChangesMenuItem().setText(messages.getString("menu.import.changes"));
+        getMergeDuplicatesMenuItem().setText(messages.getString("menu.merge.duplicates"));
         getJMenuBar().getMenu(1).setText(messages.getString("menu.language"));
         String[] columns = {
                 messages.getString("column.id"),
@@ -316,7 +345,9 @@ public class ContactView extends JFrame {
                 messages.getString("column.type"),
                 messages.getString("column.favorite")
         };
-        tableModel.setColumnIdentifiers(columns);
+        // Actualizar solo las cabeceras para conservar los renderizadores de las columnas
+        tableModel.setColumnNames(columns);
+        updateHeaders();
         contactTypeComboBox.setModel(new DefaultComboBoxModel<>(new String[]{
                 messages.getString("type.work"),
                 messages.getString("type.family"),
@@ -0,0 +1,109 @@
+package com.juliandev.view;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.AbstractMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché compartida de iconos: cada recurso se decodifica una sola vez y se escala una sola vez
+ * por tamaño en píxeles. Los iconos son imágenes multirresolución: Java2D pide la variante que
+ * corresponde al factor de escala de la pantalla (HiDPI), que se genera la primera vez y se
+ * reutiliza en los pintados siguientes.
+ */
+public final class IconCache {
+    private static final Map<String, BufferedImage> SOURCES = new ConcurrentHashMap<>();
+    private static final Map<String, BufferedImage> SCALED = new ConcurrentHashMap<>();
+    private static final Map<String, ImageIcon> ICONS = new ConcurrentHashMap<>();
+
+    private IconCache() {}
+
+    /**
+     * Icono del recurso {@code path} con tamaño lógico {@code width}x{@code height}.
+     * Llamadas repetidas devuelven la misma instancia.
+     */
+    public static ImageIcon get(String path, int width, int height) {
+        return ICONS.computeIfAbsent(path + '@' + width + 'x' + height,
+                key -> new ImageIcon(new ScaledImage(path, width, height)));
+    }
+
+    /**
+     * Imagen del recurso escalada a {@code width}x{@code height} píxeles.
+     */
+    static BufferedImage image(String path, int width, int height) {
+        return SCALED.computeIfAbsent(path + '@' + width + 'x' + height,
+                key -> scale(source(path), width, height));
+    }
+
+    private static BufferedImage source(String path) {
+        return SOURCES.computeIfAbsent(path, key -> {
+            try (InputStream in = IconCache.class.getResourceAsStream(key)) {
+                BufferedImage image = in == null ? null : ImageIO.read(in);
+                if (image != null) {
+                    return image;
+                }
+                System.err.println("Icono no encontrado: " + key);
+            } catch (IOException e) {
+                System.err.println("Error al cargar el icono " + key + ": " + e.getMessage());
+            }
+            return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        });
+    }
+
+    // Reducción por mitades con interpolación bilineal: evita el aliasing de un único paso grande
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        while (true) {
+            currentWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            currentHeight = currentHeight / 2 >= height ? currentHeight / 2 : height;
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = step;
+            if (currentWidth == width && currentHeight == height) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Imagen de tamaño lógico fijo cuyas variantes por resolución salen de la caché.
+     */
+    private static final class ScaledImage extends AbstractMultiResolutionImage {
+        private final String path;
+        private final int width;
+        private final int height;
+
+        ScaledImage(String path, int width, int height) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        protected Image getBaseImage() {
+            return image(path, width, height);
+        }
+
+        @Override
+        public Image getResolutionVariant(double destWidth, double destHeight) {
+            return image(path, Math.max(1, (int) Math.ceil(destWidth)), Math.max(1, (int) Math.ceil(destHeight)));
+        }
+
+        @Override
+        public List<Image> getResolutionVariants() {
+            return List.of(getBaseImage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.juliandev.controller;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactCache;
+import com.juliandev.model.TestDatabase;
+import com.juliandev.search.ContactSearchEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Las búsquedas en el índice en memoria corren fuera del EDT y, como las de SQLite, solo se
+ * entrega el resultado de la última.
+ */
+class SearchExecutorTest {
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    private final BlockingQueue<int[]> delivered = new LinkedBlockingQueue<>();
+    private TaskScheduler scheduler;
+    private ContactCache cache;
+    private SearchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TaskScheduler(db.profile().getPoolSize());
+        cache = new ContactCache(db.dao());
+        executor = new SearchExecutor(cache, scheduler, new SearchExecutor.Listener() {
+            @Override
+            public void firstRows(List<Contact> rows) {}
+
+            @Override
+            public void moreRows(List<Contact> rows) {}
+
+            @Override
+            public void completed(int rowCount, long firstRowMillis, long totalMillis) {}
+
+            @Override
+            public void idsFound(int[] ids, long millis) {
+                delivered.add(ids);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                delivered.add(new int[]{-1});
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+        cache.close();
+    }
+
+    @Test
+    void onlyTheLatestIndexSearchIsDelivered() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        boolean[] ranOnEdt = new boolean[1];
+        ContactSearchEngine engine = new ContactSearchEngine() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public int[] search(String query) {
+                ranOnEdt[0] |= SwingUtilities.isEventDispatchThread();
+                if (query.equals("a")) {
+                    // Consulta corta y lenta: sigue en curso cuando llega la siguiente
+                    slowStarted.countDown();
+                    try {
+                        releaseSlow.await();
+                    } catch (InterruptedException e) {
+                        // Cancelada por la búsqueda siguiente
+                        Thread.currentThread().interrupt();
+                    }
+                    return new int[]{1, 2, 3};
+                }
+                return new int[]{2};
+            }
+
+            @Override
+            public boolean isRanked() {
+                return false;
+            }
+        };
+
+        SwingUtilities.invokeAndWait(() -> executor.submit("a", engine));
+        slowStarted.await(5, TimeUnit.SECONDS);
+        // El EDT queda libre mientras la primera búsqueda sigue corriendo
+        SwingUtilities.invokeAndWait(() -> executor.submit("ab", engine));
+        releaseSlow.countDown();
+
+        assertArrayEquals(new int[]{2}, delivered.poll(5, TimeUnit.SECONDS));
+        assertNull(delivered.poll(200, TimeUnit.MILLISECONDS));
+        assertFalse(ranOnEdt[0]);
+    }
+}
@@ -0,0 +1,151 @@
+package com.juliandev.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ImportResult;
+import com.juliandev.model.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La importación y la exportación recorren los contactos de uno en uno: ninguna construye la
+ * lista completa, así que la memoria no crece con el tamaño de la agenda. Las pruebas corren con
+ * el heap limitado en el pom ({@code -Xmx64m}); con millones de contactos, materializar la lista
+ * lo agotaría.
+ */
+class StreamingImportExportTest {
+    // Cada contacto ocupa unos 250 bytes en memoria: la lista completa pasaría de 500 MB
+    private static final int LARGE_ROWS = 2_000_000;
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 500;
+
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    @Test
+    void importCommitsEachBatchBeforeReadingTheNext() {
+        ContactDAO dao = db.dao();
+        // Cada vez que se pide el primer contacto de un lote, el anterior ya está confirmado en la base de datos
+        Iterable<Contact> input = () -> new GeneratedContacts(ROWS, index -> {
+            if (index % BATCH_SIZE == 0) {
+                int[] bounds = dao.getIdBounds();
+                if (index == 0) {
+                    assertNull(bounds);
+                } else {
+                    assertEquals(index, bounds[1], "rows committed before contact " + index);
+                }
+            }
+        });
+
+        ImportResult result = dao.importContacts(input, BATCH_SIZE);
+
+        assertEquals(ROWS, result.getInserted());
+        assertEquals(0, result.getSkipped());
+    }
+
+    @Test
+    void jsonImportAndExportStreamMillionsOfContacts() throws IOException {
+        File input = db.resolve("input.json").toFile();
+        File output = db.resolve("output.json").toFile();
+        File csv = db.resolve("contacts.csv").toFile();
+        File json = db.resolve("contacts.json").toFile();
+        ContactDAO dao = db.dao();
+        writeJson(input, LARGE_ROWS);
+
+        ImportResult result = dao.deserializeFromJson(input, BATCH_SIZE);
+        assertEquals(LARGE_ROWS, result.getInserted());
+        assertEquals(0, result.getSkipped());
+
+        dao.serializeToJson(output);
+        assertEquals(LARGE_ROWS, countJsonContacts(output));
+
+        new CsvExporter(dao).export(csv, json);
+        try (Stream<String> lines = Files.lines(csv.toPath())) {
+            assertEquals(LARGE_ROWS + 1, lines.count());
+        }
+        assertEquals(LARGE_ROWS, countJsonContacts(json));
+    }
+
+    // Escribe el archivo de entrada contacto a contacto, con el mismo formato que serializeToJson
+    private static void writeJson(File file, int count) throws IOException {
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            GeneratedContacts contacts = new GeneratedContacts(count, index -> {});
+            while (contacts.hasNext()) {
+                Contact contact = contacts.next();
+                generator.writeStartObject();
+                generator.writeStringField("name", contact.getName());
+                generator.writeStringField("email", contact.getEmail());
+                generator.writeStringField("phone", contact.getPhone());
+                generator.writeStringField("contactType", contact.getContactType());
+                generator.writeBooleanField("favorite", contact.isFavorite());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    // Cuenta los contactos de un array JSON sin cargarlo, comprobando que cada uno tiene correo
+    private static int countJsonContacts(File file) throws IOException {
+        int count = 0;
+        try (JsonParser parser = new JsonFactory().createParser(file)) {
+            assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                boolean hasEmail = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    hasEmail |= field.equals("email") && parser.getText().endsWith("@example.com");
+                }
+                assertTrue(hasEmail, "contact " + count + " has no email");
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Genera los contactos al pedirlos, avisando del índice de cada uno antes de crearlo
+    private static final class GeneratedContacts implements Iterator<Contact> {
+        private final int count;
+        private final IntConsumer listener;
+        private int next;
+
+        GeneratedContacts(int count, IntConsumer listener) {
+            this.count = count;
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public Contact next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            listener.accept(next);
+            int i = next++;
+            return new Contact(0, "Contact " + i, "contact" + i + "@example.com", "+34 600 " + i,
+                    i % 2 == 0 ? "Work" : "Personal", i % 7 == 0);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.juliandev.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las escrituras condicionadas al correo son atómicas aunque muchos hilos usen el mismo correo a la vez.
+ */
+class ContactDAOConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase("balanced");
+
+    private ContactDAO dao;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        dao = db.dao();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentInsertsAndUpsertsOfTheSameEmailHaveOneWinner() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String email = "shared" + round + "@example.com";
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UpsertResult>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Contact contact = new Contact(0, "Writer " + t, email, "60000" + t, "Work", false);
+                boolean upsert = t % 2 == 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return upsert ? dao.upsertByEmail(contact) : dao.insertIfEmailAbsent(contact);
+                }));
+            }
+            start.countDown();
+
+            int inserted = 0;
+            int winnerId = 0;
+            for (int t = 0; t < THREADS; t++) {
+                UpsertResult result = results.get(t).get();
+                switch (result.getStatus()) {
+                    case INSERTED -> {
+                        inserted++;
+                        winnerId = result.getContact().getId();
+                    }
+                    // Solo las llamadas a upsertByEmail actualizan; las de insertIfEmailAbsent ceden
+                    case UPDATED -> assertEquals(1, t % 2, "insertIfEmailAbsent reported UPDATED");
+                    case CONFLICT -> assertEquals(0, t % 2, "upsertByEmail reported CONFLICT");
+                    default -> throw new AssertionError("Unexpected status " + result.getStatus());
+                }
+            }
+            assertEquals(1, inserted, "winners for " + email);
+
+            List<Contact> stored = dao.findByEmail(email);
+            assertEquals(1, stored.size(), "rows for " + email);
+            assertEquals(winnerId, stored.get(0).getId());
+            // Todas las actualizaciones fueron sobre la fila ganadora
+            for (Future<UpsertResult> result : results) {
+                Contact contact = result.get().getContact();
+                if (contact != null) {
+                    assertEquals(winnerId, contact.getId());
+                }
+            }
+        }
+        assertEquals(ROUNDS, dao.getAllContactIds().length);
+    }
+}
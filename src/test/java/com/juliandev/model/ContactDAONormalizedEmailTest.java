@@ -0,0 +1,153 @@
+package com.juliandev.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los correos que solo cambian en mayúsculas o espacios alrededor cuentan como el mismo correo
+ * en todas las escrituras.
+ */
+class ContactDAONormalizedEmailTest {
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    @Test
+    void emailsDifferingOnlyInCaseConflict() {
+        ContactDAO dao = db.dao();
+        UpsertResult first = dao.insertIfEmailAbsent(contact("Ana Ruiz", "ana@mail.com"));
+        UpsertResult second = dao.insertIfEmailAbsent(contact("Ana R.", " Ana@Mail.COM "));
+
+        assertEquals(UpsertResult.Status.INSERTED, first.getStatus());
+        assertEquals(UpsertResult.Status.CONFLICT, second.getStatus());
+        assertThrows(RuntimeException.class, () -> dao.saveContact(contact("Ana", "ANA@mail.com")));
+        assertEquals(1, dao.getAllContactIds().length);
+        assertTrue(dao.emailExists("Ana@Mail.com", 0));
+    }
+
+    @Test
+    void everyWritePathComparesNormalizedEmails() {
+        ContactDAO dao = db.dao();
+        Contact ana = dao.saveContact(contact("Ana Ruiz", "ana@mail.com"));
+        Contact luis = dao.saveContact(contact("Luis Gil", "luis@mail.com"));
+
+        // Cambiar el correo de otro contacto por una variante del de Ana
+        luis.setEmail("ANA@mail.com");
+        assertEquals(UpsertResult.Status.CONFLICT, dao.updateIfEmailAvailable(luis).getStatus());
+
+        // La variante actualiza el contacto existente, que conserva su correo
+        UpsertResult upserted = dao.upsertByEmail(new Contact(0, "Ana Ruiz Soto", "Ana@Mail.com", "600111222",
+                "Work", true));
+        assertEquals(UpsertResult.Status.UPDATED, upserted.getStatus());
+        assertEquals(ana.getId(), upserted.getContact().getId());
+        assertEquals("ana@mail.com", upserted.getContact().getEmail());
+        assertEquals("Ana Ruiz Soto", upserted.getContact().getName());
+
+        ImportResult imported = dao.importContacts(List.of(contact("Ana", "ana@MAIL.com"),
+                contact("Eva Sanz", "eva@mail.com"), contact("Eva", "Eva@Mail.com")), 10);
+        assertEquals(1, imported.getInserted());
+        assertEquals(2, imported.getSkipped());
+        assertEquals(3, dao.getAllContactIds().length);
+    }
+
+    @Test
+    void legacyDatabaseGetsTheUniqueIndexAfterNormalizing() throws SQLException {
+        createLegacyDatabase(db.resolve("legacy.db"), "ana@mail.com", "luis@mail.com");
+        ContactDAO dao = db.open("legacy.db");
+
+        assertTrue(dao.hasPendingNormalization());
+        assertEquals(2, dao.normalizePendingContacts(1));
+        assertFalse(dao.hasPendingNormalization());
+
+        assertEquals(UpsertResult.Status.CONFLICT, dao.insertIfEmailAbsent(contact("Ana", "Ana@Mail.com")).getStatus());
+        assertEquals(2, dao.getAllContactIds().length);
+    }
+
+    @Test
+    void legacyDatabaseWithCaseDuplicatesStillOpens() throws SQLException {
+        createLegacyDatabase(db.resolve("legacy.db"), "ana@mail.com", "Ana@Mail.com");
+        ContactDAO dao = db.open("legacy.db");
+        dao.normalizePendingContacts(1);
+
+        // Sin índice único hasta fusionar los duplicados; las búsquedas siguen encontrando ambos
+        assertTrue(dao.hasDuplicateNormalizedEmails());
+        assertEquals(2, dao.findByEmail("ANA@mail.com").size());
+        assertEquals(UpsertResult.Status.CONFLICT, dao.insertIfEmailAbsent(contact("Ana", "ana@mail.com")).getStatus());
+
+        // Al quitar el duplicado, el índice único se crea sin reabrir la base de datos
+        dao.deleteContact(dao.findByEmail("Ana@Mail.com").get(0).getId());
+        assertTrue(dao.retryUniqueEmailIndex());
+        assertFalse(dao.hasDuplicateNormalizedEmails());
+        assertEquals(UpsertResult.Status.CONFLICT, dao.insertIfEmailAbsent(contact("Ana", "ANA@mail.com")).getStatus());
+    }
+
+    @Test
+    void normalizingSurvivesConcurrentEdits() throws Exception {
+        String[] emails = new String[2000];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = "legacy" + i + "@mail.com";
+        }
+        createLegacyDatabase(db.resolve("legacy.db"), emails);
+        ContactDAO dao = db.open("legacy.db");
+        Contact edited = dao.findByEmail("legacy0@mail.com").get(0);
+
+        // Cada lote lee y luego escribe; las ediciones confirman entre medias sin hacerlo fallar
+        AtomicBoolean done = new AtomicBoolean();
+        Thread editor = new Thread(() -> {
+            for (int i = 0; !done.get(); i++) {
+                edited.setName("Edit " + i);
+                dao.updateIfEmailAvailable(edited);
+            }
+        });
+        editor.start();
+        try {
+            // La fila editada ya queda normalizada al guardarse y el lote la salta
+            assertTrue(dao.normalizePendingContacts(5) >= emails.length - 1);
+        } finally {
+            done.set(true);
+            editor.join();
+        }
+
+        assertFalse(dao.hasPendingNormalization());
+        assertFalse(dao.hasDuplicateNormalizedEmails());
+        assertEquals(1, dao.findByEmail("LEGACY1999@mail.com").size());
+    }
+
+    private static Contact contact(String name, String email) {
+        return new Contact(0, name, email, null, "Work", false);
+    }
+
+    // Esquema anterior a las columnas normalizadas
+    private static void createLegacyDatabase(Path file, String... emails) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE contacts (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        email TEXT NOT NULL UNIQUE,
+                        phone TEXT,
+                        contact_type TEXT,
+                        favorite BOOLEAN NOT NULL
+                    )
+                    """);
+            conn.setAutoCommit(false);
+            for (String email : emails) {
+                stmt.execute("INSERT INTO contacts (name, email, favorite) VALUES ('Legacy', '" + email + "', 0)");
+            }
+            conn.commit();
+        }
+    }
+}
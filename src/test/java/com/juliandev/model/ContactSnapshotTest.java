@@ -0,0 +1,48 @@
+package com.juliandev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactSnapshotTest {
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    private ContactDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = db.dao();
+    }
+
+    @Test
+    void rewritingLeavesTheMappedSnapshotUntouched() throws IOException {
+        dao.saveContact(new Contact(0, "Ana Ruiz", "ana@example.com", "600111222", "Work", true));
+        dao.saveContact(new Contact(0, "Luis Gil", "luis@example.com", null, null, false));
+        File first = ContactSnapshot.write(dao);
+        ContactSnapshot mapped = ContactSnapshot.open(first);
+
+        dao.saveContact(new Contact(0, "Eva Sanz", "eva@example.com", null, "Personal", false));
+        File second = ContactSnapshot.write(dao);
+
+        assertNotEquals(first, second);
+        assertEquals(List.of(second), ContactSnapshot.filesFor(db.profile()));
+        // La proyección anterior sigue leyendo sus datos aunque su archivo ya no esté
+        assertEquals(2, mapped.size());
+        assertEquals("Ana Ruiz", mapped.getContact(0).getName());
+        assertTrue(mapped.verifyChecksum());
+
+        ContactSnapshot latest = ContactSnapshot.open(second);
+        assertEquals(3, latest.size());
+        assertEquals(dao.getDataVersion(), latest.getDataVersion());
+        assertEquals("Eva Sanz", latest.getContact(2).getName());
+    }
+}
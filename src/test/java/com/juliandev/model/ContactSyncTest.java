@@ -0,0 +1,145 @@
+package com.juliandev.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Los archivos de cambios solo se aplican sobre una réplica de la base de datos que los exportó,
+ * los intercambios de correo llegan completos y una exportación fallida no deja un archivo a medias.
+ */
+class ContactSyncTest {
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    @Test
+    void replicaFollowsItsSource() {
+        ContactDAO source = db.dao();
+        ContactDAO replica = db.open("replica.db");
+        source.saveContact(new Contact(0, "Ana", "ana@example.com", null, "Work", false));
+        source.saveContact(new Contact(0, "Luis", "luis@example.com", null, "Work", false));
+
+        File first = db.resolve("first.json").toFile();
+        SyncResult exported = source.exportChanges(0, first);
+        assertEquals(2, replica.applyChanges(first).getUpserted());
+
+        File second = db.resolve("second.json").toFile();
+        source.deleteContact(source.findByEmail("luis@example.com").get(0).getId());
+        source.exportChanges(exported.getToSequence(), second);
+        assertEquals(1, replica.applyChanges(second).getDeleted());
+        assertEquals(names(source), names(replica));
+
+        // Repetir un archivo ya aplicado no cambia nada
+        SyncResult repeated = replica.applyChanges(first);
+        assertEquals(0, repeated.getUpserted());
+        assertEquals(names(source), names(replica));
+    }
+
+    @Test
+    void independentDatabaseRejectsChanges() {
+        ContactDAO source = db.dao();
+        ContactDAO other = db.open("other.db");
+        source.saveContact(new Contact(0, "Ana", "ana@example.com", null, "Work", false));
+        // Mismo ID, otro contacto: aplicar por ID lo sobrescribiría
+        other.saveContact(new Contact(0, "Marta", "marta@example.com", null, "Home", false));
+
+        File file = db.resolve("changes.json").toFile();
+        source.exportChanges(0, file);
+        assertThrows(RuntimeException.class, () -> other.applyChanges(file));
+        assertEquals(List.of("Marta"), names(other));
+    }
+
+    @Test
+    void replicaRejectsAnotherSourceAndGaps() {
+        ContactDAO source = db.dao();
+        ContactDAO otherSource = db.open("other.db");
+        ContactDAO replica = db.open("replica.db");
+        source.saveContact(new Contact(0, "Ana", "ana@example.com", null, "Work", false));
+        otherSource.saveContact(new Contact(0, "Marta", "marta@example.com", null, "Home", false));
+
+        File first = db.resolve("first.json").toFile();
+        SyncResult exported = source.exportChanges(0, first);
+        replica.applyChanges(first);
+
+        File foreign = db.resolve("foreign.json").toFile();
+        otherSource.exportChanges(0, foreign);
+        assertThrows(RuntimeException.class, () -> replica.applyChanges(foreign));
+
+        // Falta el archivo que cubre la secuencia entre exported.getToSequence() y la de este
+        source.saveContact(new Contact(0, "Luis", "luis@example.com", null, "Work", false));
+        long skipped = source.exportChanges(exported.getToSequence(), db.resolve("skipped.json").toFile())
+                .getToSequence();
+        source.saveContact(new Contact(0, "Eva", "eva@example.com", null, "Work", false));
+        File gap = db.resolve("gap.json").toFile();
+        source.exportChanges(skipped, gap);
+        assertThrows(RuntimeException.class, () -> replica.applyChanges(gap));
+        assertEquals(List.of("Ana"), names(replica));
+
+        // Un archivo exportado por la propia base de datos tampoco se aplica sobre ella
+        assertThrows(RuntimeException.class, () -> source.applyChanges(first));
+    }
+
+    @Test
+    void emailSwapIsApplied() {
+        ContactDAO source = db.dao();
+        ContactDAO replica = db.open("replica.db");
+        Contact ana = source.saveContact(new Contact(0, "Ana", "ana@example.com", null, "Work", false));
+        Contact luis = source.saveContact(new Contact(0, "Luis", "luis@example.com", null, "Work", false));
+        File first = db.resolve("first.json").toFile();
+        long since = source.exportChanges(0, first).getToSequence();
+        replica.applyChanges(first);
+
+        // Intercambio a través de un correo temporal, como lo haría el usuario
+        ana.setEmail("tmp@example.com");
+        source.updateContact(ana);
+        luis.setEmail("ana@example.com");
+        source.updateContact(luis);
+        ana.setEmail("luis@example.com");
+        source.updateContact(ana);
+
+        File swap = db.resolve("swap.json").toFile();
+        source.exportChanges(since, swap);
+        SyncResult applied = replica.applyChanges(swap);
+        assertEquals(2, applied.getUpserted());
+        assertEquals(0, applied.getConflicts());
+        assertEquals("Luis", replica.findByEmail("ana@example.com").get(0).getName());
+        assertEquals("Ana", replica.findByEmail("luis@example.com").get(0).getName());
+
+        SyncResult again = replica.applyChanges(swap);
+        assertEquals(0, again.getUpserted());
+        assertEquals(0, again.getConflicts());
+        assertEquals(2, again.getUnchanged());
+    }
+
+    @Test
+    void failedExportKeepsThePreviousFile() throws Exception {
+        ContactDAO source = db.dao();
+        source.saveContact(new Contact(0, "Ana", "ana@example.com", null, "Work", false));
+        File file = db.resolve("changes.json").toFile();
+        source.exportChanges(0, file);
+        byte[] previous = Files.readAllBytes(file.toPath());
+
+        // Sin sync_info la exportación falla cuando ya ha empezado a escribir
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db.resolve("contacts.db"));
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE sync_info");
+        }
+        assertThrows(RuntimeException.class, () -> source.exportChanges(0, file));
+        assertEquals(new String(previous), Files.readString(file.toPath()));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    private static List<String> names(ContactDAO dao) {
+        return dao.getAllContacts().stream().map(Contact::getName).sorted().toList();
+    }
+}
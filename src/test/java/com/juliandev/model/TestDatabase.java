@@ -0,0 +1,90 @@
+package com.juliandev.model;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base de datos temporal para las pruebas: antes de cada prueba crea un directorio vacío y abre
+ * {@code contacts.db} con el perfil indicado; al terminar cierra todos los DAO abiertos con
+ * {@link #open(String)} y borra el directorio.
+ *
+ * <pre>
+ * &#64;RegisterExtension
+ * final TestDatabase db = new TestDatabase();
+ * </pre>
+ */
+public final class TestDatabase implements BeforeEachCallback, AfterEachCallback {
+    private final String profileName;
+    private final List<ContactDAO> opened = new ArrayList<>();
+    private Path directory;
+    private StorageProfile profile;
+    private ContactDAO dao;
+
+    public TestDatabase() {
+        this("fast");
+    }
+
+    public TestDatabase(String profileName) {
+        this.profileName = profileName;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws IOException {
+        directory = Files.createTempDirectory("contacts-test-");
+        profile = profile(resolve("contacts.db"));
+        dao = open("contacts.db");
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws IOException {
+        opened.forEach(ContactDAO::close);
+        opened.clear();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /** DAO sobre {@code contacts.db}. */
+    public ContactDAO dao() {
+        return dao;
+    }
+
+    /** Perfil de {@code contacts.db}, con la ruta ya fijada. */
+    public StorageProfile profile() {
+        return profile;
+    }
+
+    /** Ruta de un archivo dentro del directorio temporal de la prueba. */
+    public Path resolve(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    /** Abre otra base de datos en el mismo directorio, que se cierra al terminar la prueba. */
+    public ContactDAO open(String fileName) {
+        ContactDAO opened = new ContactDAO(profile(resolve(fileName)));
+        this.opened.add(opened);
+        return opened;
+    }
+
+    private StorageProfile profile(Path db) {
+        StorageProfile profile = StorageProfile.named(profileName);
+        profile.setDbPath(db.toString());
+        return profile;
+    }
+}
@@ -0,0 +1,78 @@
+package com.juliandev.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    private ContactDAO dao;
+    // Sin flush automático: las escrituras esperan en la cola hasta que la prueba llama a flush()
+    private WriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        dao = db.dao();
+        queue = new WriteBehindQueue(dao, 3_600_000, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    void favoriteToggledAfterAnEditKeepsTheEdit() {
+        Contact original = dao.saveContact(new Contact(0, "Ana Ruiz", "ana@example.com", "600111222", "Work", false));
+
+        // Como ContactController.editContact: se vacía la cola y se guarda la edición aparte
+        queue.flush().join();
+        Contact edited = new Contact(original.getId(), "Ana Ruiz Soto", "ana.ruiz@example.com", "600111222",
+                "Personal", false);
+        assertEquals(UpsertResult.Status.UPDATED, dao.updateIfEmailAvailable(edited).getStatus());
+        // El favorito se marca sobre la fila que aún muestra el formulario, con los datos de antes
+        CompletableFuture<Contact> favorited = queue.setFavorite(original.getId(), true);
+        queue.flush().join();
+
+        Contact stored = dao.getContactsByIds(new int[]{original.getId()}).get(0);
+        assertEquals("Ana Ruiz Soto", stored.getName());
+        assertEquals("ana.ruiz@example.com", stored.getEmail());
+        assertEquals("Personal", stored.getContactType());
+        assertTrue(stored.isFavorite());
+        assertEquals("Ana Ruiz Soto", favorited.join().getName());
+    }
+
+    @Test
+    void favoriteIsMergedIntoAPendingUpdate() {
+        Contact original = dao.saveContact(new Contact(0, "Luis Gil", "luis@example.com", null, "Work", false));
+
+        queue.update(new Contact(original.getId(), "Luis Gil Mora", "luis@example.com", null, "Work", false));
+        queue.setFavorite(original.getId(), true);
+        assertEquals(1, queue.getPendingCount());
+        queue.flush().join();
+
+        Contact stored = dao.getContactsByIds(new int[]{original.getId()}).get(0);
+        assertEquals("Luis Gil Mora", stored.getName());
+        assertTrue(stored.isFavorite());
+    }
+
+    @Test
+    void favoriteDoesNotCancelAPendingDelete() {
+        Contact original = dao.saveContact(new Contact(0, "Eva Sanz", "eva@example.com", null, "Work", false));
+
+        queue.delete(original.getId());
+        queue.setFavorite(original.getId(), true);
+        queue.flush().join();
+
+        assertNull(dao.getIdBounds());
+    }
+}
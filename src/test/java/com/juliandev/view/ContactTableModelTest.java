@@ -0,0 +1,135 @@
+package com.juliandev.view;
+
+import com.juliandev.model.Contact;
+import com.juliandev.model.ContactCache;
+import com.juliandev.model.ContactDAO;
+import com.juliandev.model.ContactQuery;
+import com.juliandev.model.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Las páginas de un listado ordenado siguen los IDs que guarda la tabla aunque una edición cambie
+ * la clave de orden de la fila que cierra la página anterior.
+ */
+class ContactTableModelTest {
+    private static final int ROWS = 3 * ContactTableModel.PAGE_SIZE;
+    private static final int BOUNDARY = ContactTableModel.PAGE_SIZE - 1;
+
+    @RegisterExtension
+    final TestDatabase db = new TestDatabase();
+
+    private ContactDAO dao;
+    private ContactCache cache;
+    private ContactTableModel model;
+
+    @BeforeEach
+    void setUp() {
+        dao = db.dao();
+        List<Contact> contacts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            // La mitad son favoritos, con nombres en el mismo orden que los IDs
+            contacts.add(new Contact(0, String.format("Contact %04d", i), "contact" + i + "@example.com", null,
+                    "Work", i < ROWS / 2));
+        }
+        dao.importContacts(contacts, ROWS);
+        cache = new ContactCache(dao);
+        model = new ContactTableModel(new String[]{"ID", "Name", "Email", "Phone", "Type", "Favorite"});
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void nextPageLoadsAfterTheBoundaryRowStopsBeingFavorite() throws Exception {
+        int[] ids = show(ContactQuery.all().sortedBy(ContactQuery.SortColumn.FAVORITE, false));
+        Contact boundary = loadRows(0, ContactTableModel.PAGE_SIZE)[BOUNDARY];
+        assertEquals(true, boundary.isFavorite());
+
+        // Como ContactController.toggleFavorite: la fila cambia en su sitio, sin recargar el listado
+        Contact updated = dao.updateFavorite(boundary.getId(), false);
+        onEdt(() -> {
+            model.contactUpdated(updated);
+            return null;
+        });
+
+        assertPageFollowsIds(ids, 1);
+    }
+
+    @Test
+    void nextPageLoadsAfterTheBoundaryRowIsRenamed() throws Exception {
+        int[] ids = show(ContactQuery.all().sortedBy(ContactQuery.SortColumn.NAME, true));
+        Contact boundary = loadRows(0, ContactTableModel.PAGE_SIZE)[BOUNDARY];
+
+        // El nuevo nombre la colocaría al final del orden por nombre
+        boundary.setName("Zoe");
+        Contact updated = dao.updateIfEmailAvailable(boundary).getContact();
+        onEdt(() -> {
+            model.contactUpdated(updated);
+            return null;
+        });
+
+        assertPageFollowsIds(ids, 1);
+    }
+
+    // Igual que ContactController.loadContacts
+    private int[] show(ContactQuery query) throws Exception {
+        int[] ids = dao.queryContactIds(query);
+        onEdt(() -> {
+            model.showPaged(ids, cache::getContactsByIds, query.isIdOrder());
+            return null;
+        });
+        return ids;
+    }
+
+    private void assertPageFollowsIds(int[] ids, int page) throws Exception {
+        int from = page * ContactTableModel.PAGE_SIZE;
+        Contact[] rows = loadRows(from, from + ContactTableModel.PAGE_SIZE);
+        for (int i = 0; i < rows.length; i++) {
+            assertNotNull(rows[i], "row " + (from + i));
+            assertEquals(ids[from + i], rows[i].getId(), "row " + (from + i));
+        }
+    }
+
+    // Pide las filas desde el EDT hasta que su página llega (o se agota el plazo) y devuelve lo que haya
+    private Contact[] loadRows(int from, int to) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            Contact[] rows = onEdt(() -> {
+                Contact[] visible = new Contact[to - from];
+                for (int row = from; row < to; row++) {
+                    visible[row - from] = model.getContactAt(row);
+                }
+                return visible;
+            });
+            boolean loaded = true;
+            for (Contact row : rows) {
+                loaded &= row != null;
+            }
+            if (loaded || System.nanoTime() > deadline) {
+                return rows;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static <T> T onEdt(Supplier<T> action) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(action.get()));
+        return result.get();
+    }
+}